@@ -6,11 +6,14 @@ import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 
-import java.time.LocalDateTime;
+import java.util.Set;
 
 @SpringBootApplication
 public class GatewayServerApplication {
 
+	// Upstream responses that count as circuit breaker failures and are answered by the fallback
+	private static final Set<String> UPSTREAM_FAILURE_STATUSES = Set.of("500", "502", "503", "504");
+
 	public static void main(String[] args) {
 		SpringApplication.run(GatewayServerApplication.class, args);
 	}
@@ -18,25 +21,31 @@ public class GatewayServerApplication {
 	@Bean
 	public RouteLocator pizzeriaRouteConfig(RouteLocatorBuilder routeLocatorBuilder) {
 		return routeLocatorBuilder.routes()
-				.route(p -> p
+				.route("user-service", p -> p
 						.path("/pizzeria/users/**")
 						.filters(f -> f.rewritePath("/pizzeria/users/(?<segment>.*)", "/${segment}")
-								.addResponseHeader("X-Response-Time", LocalDateTime.now().toString())
-								.addResponseHeader("X-Service", "USER-SERVICE"))
+								.addResponseHeader("X-Service", "USER-SERVICE")
+								.circuitBreaker(c -> c.setName("user-service")
+										.setFallbackUri("forward:/fallback/user-service")
+										.setStatusCodes(UPSTREAM_FAILURE_STATUSES)))
 						.uri("lb://USER-SERVICE"))
 
-				.route(p -> p
+				.route("menu-service", p -> p
 						.path("/pizzeria/menu/**")
 						.filters(f -> f.rewritePath("/pizzeria/menu/(?<segment>.*)", "/${segment}")
-								.addResponseHeader("X-Response-Time", LocalDateTime.now().toString())
-								.addResponseHeader("X-Service", "MENU-SERVICE"))
+								.addResponseHeader("X-Service", "MENU-SERVICE")
+								.circuitBreaker(c -> c.setName("menu-service")
+										.setFallbackUri("forward:/fallback/menu-service")
+										.setStatusCodes(UPSTREAM_FAILURE_STATUSES)))
 						.uri("lb://MENU-SERVICE"))
 
-				.route(p -> p
+				.route("order-service", p -> p
 						.path("/pizzeria/orders/**")
 						.filters(f -> f.rewritePath("/pizzeria/orders/(?<segment>.*)", "/${segment}")
-								.addResponseHeader("X-Response-Time", LocalDateTime.now().toString())
-								.addResponseHeader("X-Service", "ORDER-SERVICE"))
+								.addResponseHeader("X-Service", "ORDER-SERVICE")
+								.circuitBreaker(c -> c.setName("order-service")
+										.setFallbackUri("forward:/fallback/order-service")
+										.setStatusCodes(UPSTREAM_FAILURE_STATUSES)))
 						.uri("lb://ORDER-SERVICE"))
 
 				.build();
@@ -0,0 +1,110 @@
+package com.pizzastore.gateway_server.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzastore.gateway_server.config.HomeScreenProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the app launch screen from menu-service, user-service and order-service in one parallel
+ * fan-out. Every call has its own timeout; a slow or failing backend only costs its own section,
+ * which is returned as null and listed under "unavailable".
+ */
+@Component
+public class HomeScreenAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeScreenAggregator.class);
+
+    private final WebClient webClient;
+    private final HomeScreenProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public HomeScreenAggregator(WebClient.Builder webClientBuilder,
+                                ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                HomeScreenProperties properties, MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param authorization the caller's Authorization header, forwarded to user-service
+     * @param userId        the verified caller, or null for an anonymous launch screen
+     */
+    public Mono<Map<String, Object>> aggregate(String authorization, Long userId) {
+        List<Mono<Section>> sections = List.of(
+                section("categories", get(properties.getMenuService(), "/api/menu/categories", null)),
+                section("items", get(properties.getMenuService(), "/api/menu/items", null)),
+                userId != null
+                        ? section("profile", get(properties.getUserService(), "/api/users/profile", authorization))
+                        : Mono.just(Section.anonymous("profile")),
+                userId != null
+                        ? section("recentOrders", get(properties.getOrderService(),
+                                "/api/orders/user/" + userId + "?limit=" + properties.getRecentOrders(), authorization))
+                        : Mono.just(Section.anonymous("recentOrders")));
+
+        return Mono.zip(sections, results -> {
+            Map<String, Object> home = new LinkedHashMap<>();
+            List<String> unavailable = new ArrayList<>();
+            for (Object result : results) {
+                Section section = (Section) result;
+                home.put(section.name(), section.body());
+                if (section.failed()) {
+                    unavailable.add(section.name());
+                }
+            }
+            home.put("partial", !unavailable.isEmpty());
+            home.put("unavailable", unavailable);
+            return home;
+        });
+    }
+
+    private Mono<JsonNode> get(String serviceId, String path, String authorization) {
+        return webClient.get()
+                .uri("http://" + serviceId + path)
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+    }
+
+    private Mono<Section> section(String name, Mono<JsonNode> call) {
+        return call
+                .timeout(properties.getCallTimeout())
+                .map(body -> new Section(name, body, "ok"))
+                .onErrorResume(e -> {
+                    String outcome = e instanceof TimeoutException ? "timeout" : "error";
+                    logger.warn("Home screen section {} unavailable ({}): {}", name, outcome, e.getMessage());
+                    return Mono.just(new Section(name, null, outcome));
+                })
+                .defaultIfEmpty(new Section(name, null, "ok"))
+                .doOnNext(section -> meterRegistry.counter("pizzeria.gateway.home.sections",
+                        "section", name, "outcome", section.outcome()).increment());
+    }
+
+    private record Section(String name, JsonNode body, String outcome) {
+
+        static Section anonymous(String name) {
+            return new Section(name, null, "anonymous");
+        }
+
+        boolean failed() {
+            return "timeout".equals(outcome) || "error".equals(outcome);
+        }
+    }
+}
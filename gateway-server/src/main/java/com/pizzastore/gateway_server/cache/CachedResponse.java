@@ -0,0 +1,34 @@
+package com.pizzastore.gateway_server.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+
+// A fully buffered upstream response that can be replayed to other clients
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    // Copy the headers worth replaying; framing and per-client headers are left out
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders source, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(source);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.SET_COOKIE);
+        return new CachedResponse(status != null ? status : HttpStatusCode.valueOf(200), headers, body);
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        // Headers the receiving exchange already set itself (rate limit, timing) take precedence
+        headers.forEach((name, values) -> {
+            if (!response.getHeaders().containsKey(name)) {
+                response.getHeaders().put(name, new ArrayList<>(values));
+            }
+        });
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.pizzastore.gateway_server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzastore.gateway_server.config.CompressionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compressed bodies of responses carrying a strong ETag, keyed by coding, request and ETag, so a
+ * menu representation is compressed once per coding rather than on every request. A changed
+ * menu gets a new ETag and therefore a new entry; old ones age out by size.
+ */
+@Component
+public class CompressedResponseCache {
+
+    private final Cache<String, byte[]> representations;
+
+    public CompressedResponseCache(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.representations = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxCachedSize().toBytes())
+                .weigher((String key, byte[] body) -> body.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, representations, "compressedResponses");
+    }
+
+    public static String key(String coding, String request, String etag) {
+        return coding + ' ' + request + ' ' + etag;
+    }
+
+    public void put(String key, byte[] compressed) {
+        representations.put(key, compressed);
+    }
+
+    public byte[] get(String key) {
+        return representations.getIfPresent(key);
+    }
+}
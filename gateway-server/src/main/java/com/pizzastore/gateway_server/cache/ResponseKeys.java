@@ -0,0 +1,30 @@
+package com.pizzastore.gateway_server.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.util.List;
+
+// Requests share a response when path, query and the content negotiation / conditional headers match
+public final class ResponseKeys {
+
+    // Set on the exchange by the coalescing filter, so a forwarded fallback can find the same entry
+    public static final String RESPONSE_KEY_ATTR = ResponseKeys.class.getName() + ".key";
+
+    private static final List<String> KEY_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+
+    private ResponseKeys() {
+    }
+
+    public static String of(URI uri, HttpHeaders headers) {
+        StringBuilder key = new StringBuilder(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            key.append('?').append(uri.getRawQuery());
+        }
+        for (String header : KEY_HEADERS) {
+            key.append('|').append(headers.getOrEmpty(header));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.pizzastore.gateway_server.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzastore.gateway_server.config.FallbackProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last successful response per request key, replayed by the circuit breaker fallback while the
+ * backend is failing or its bulkhead is full. Bounded by entry count and age.
+ */
+@Component
+public class StaleResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+
+    public StaleResponseCache(FallbackProperties properties, MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxStaleResponses())
+                .expireAfterWrite(properties.getStaleTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "staleResponses");
+    }
+
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+}
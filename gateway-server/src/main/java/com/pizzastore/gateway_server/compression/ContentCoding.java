@@ -0,0 +1,157 @@
+package com.pizzastore.gateway_server.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.util.Native;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Content-Encodings the gateway can produce. Brotli and zstd are backed by native libraries
+ * and are only offered when those load on this platform; gzip is always available.
+ */
+public enum ContentCoding {
+
+    ZSTD("zstd") {
+        @Override
+        boolean loadNative() {
+            Native.load();
+            return Native.isLoaded();
+        }
+
+        @Override
+        public byte[] encode(byte[] body, int level) {
+            return Zstd.compress(body, level);
+        }
+    },
+
+    BROTLI("br") {
+        @Override
+        boolean loadNative() {
+            Brotli4jLoader.ensureAvailability();
+            return Brotli4jLoader.isAvailable();
+        }
+
+        @Override
+        public byte[] encode(byte[] body, int level) {
+            try {
+                return Encoder.compress(body, new Encoder.Parameters().setQuality(level));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        boolean loadNative() {
+            return true;
+        }
+
+        @Override
+        public byte[] encode(byte[] body, int level) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    };
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCoding.class);
+
+    private final String token;
+    private volatile Boolean available;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    // The Content-Encoding / Accept-Encoding token
+    public String token() {
+        return token;
+    }
+
+    public abstract byte[] encode(byte[] body, int level);
+
+    abstract boolean loadNative();
+
+    public boolean isAvailable() {
+        Boolean result = available;
+        if (result == null) {
+            try {
+                result = loadNative();
+            } catch (Throwable e) {
+                logger.warn("{} compression unavailable on this platform: {}", token, e.toString());
+                result = false;
+            }
+            available = result;
+        }
+        return result;
+    }
+
+    public static ContentCoding fromToken(String token) {
+        for (ContentCoding coding : values()) {
+            if (coding.token.equalsIgnoreCase(token)) {
+                return coding;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content coding: " + token);
+    }
+
+    /**
+     * Picks the first coding in server preference order that the Accept-Encoding header allows
+     * (listed, or covered by "*", and not refused with q=0). Returns null when nothing matches.
+     */
+    public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> preference) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Boolean> accepted = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            accepted.put(name, !refused);
+        }
+
+        Boolean wildcard = accepted.get("*");
+        for (ContentCoding coding : preference) {
+            Boolean explicit = accepted.get(coding.token);
+            boolean allowed = explicit != null ? explicit : Boolean.TRUE.equals(wildcard);
+            if (allowed && coding.isAvailable()) {
+                return coding;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.pizzastore.gateway_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// GET routes whose concurrent identical requests share one upstream call; list only caller-independent responses
+@Configuration
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+    // Keep successful responses for this long after the shared call completes; 0 disables the micro-cache
+    private Duration microCacheTtl = Duration.ZERO;
+    private long maxCachedResponses = 1000;
+    // Larger responses are still shared with current waiters but never cached
+    private DataSize maxCachedBodySize = DataSize.ofMegabytes(1);
+    private List<Target> routes = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMicroCacheTtl() {
+        return microCacheTtl;
+    }
+
+    public void setMicroCacheTtl(Duration microCacheTtl) {
+        this.microCacheTtl = microCacheTtl;
+    }
+
+    public long getMaxCachedResponses() {
+        return maxCachedResponses;
+    }
+
+    public void setMaxCachedResponses(long maxCachedResponses) {
+        this.maxCachedResponses = maxCachedResponses;
+    }
+
+    public DataSize getMaxCachedBodySize() {
+        return maxCachedBodySize;
+    }
+
+    public void setMaxCachedBodySize(DataSize maxCachedBodySize) {
+        this.maxCachedBodySize = maxCachedBodySize;
+    }
+
+    public List<Target> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Target> routes) {
+        this.routes = routes;
+    }
+
+    public static class Target {
+
+        private String route;
+        // Optional path pattern within the route
+        private String path;
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.pizzastore.gateway_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response compression for allowlisted routes; upstream calls are made uncompressed and the gateway encodes once
+@Configuration
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+    // Smaller bodies gain less than the Content-Encoding overhead and CPU cost
+    private DataSize minResponseSize = DataSize.ofKilobytes(1);
+    // Server preference among what the client accepts; codings without a native library are skipped
+    private List<String> encodings = new ArrayList<>(List.of("zstd", "br", "gzip"));
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json", "application/problem+json", "text/plain", "text/html", "text/css",
+            "application/javascript", "application/xml"));
+    private int gzipLevel = 6;
+    private int brotliQuality = 5;
+    private int zstdLevel = 3;
+    // Compressed bodies of responses with a strong ETag are kept and reused, up to this many bytes in total
+    private DataSize maxCachedSize = DataSize.ofMegabytes(16);
+    private List<Target> routes = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    public void setMinResponseSize(DataSize minResponseSize) {
+        this.minResponseSize = minResponseSize;
+    }
+
+    public List<String> getEncodings() {
+        return encodings;
+    }
+
+    public void setEncodings(List<String> encodings) {
+        this.encodings = encodings;
+    }
+
+    public List<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    public void setMimeTypes(List<String> mimeTypes) {
+        this.mimeTypes = mimeTypes;
+    }
+
+    public int getGzipLevel() {
+        return gzipLevel;
+    }
+
+    public void setGzipLevel(int gzipLevel) {
+        this.gzipLevel = gzipLevel;
+    }
+
+    public int getBrotliQuality() {
+        return brotliQuality;
+    }
+
+    public void setBrotliQuality(int brotliQuality) {
+        this.brotliQuality = brotliQuality;
+    }
+
+    public int getZstdLevel() {
+        return zstdLevel;
+    }
+
+    public void setZstdLevel(int zstdLevel) {
+        this.zstdLevel = zstdLevel;
+    }
+
+    public DataSize getMaxCachedSize() {
+        return maxCachedSize;
+    }
+
+    public void setMaxCachedSize(DataSize maxCachedSize) {
+        this.maxCachedSize = maxCachedSize;
+    }
+
+    public List<Target> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Target> routes) {
+        this.routes = routes;
+    }
+
+    public static class Target {
+
+        private String route;
+        // Optional path pattern within the route; all paths when absent
+        private String path;
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+}
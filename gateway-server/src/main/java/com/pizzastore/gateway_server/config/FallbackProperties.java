@@ -0,0 +1,43 @@
+package com.pizzastore.gateway_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Circuit breaker fallbacks; stale responses are recorded for the coalesced routes (see CoalescingProperties)
+@Configuration
+@ConfigurationProperties(prefix = "gateway.fallback")
+public class FallbackProperties {
+
+    // Routes whose fallback replays the last good response instead of returning 503
+    private List<String> staleRoutes = new ArrayList<>();
+    private Duration staleTtl = Duration.ofMinutes(30);
+    private long maxStaleResponses = 1000;
+
+    public List<String> getStaleRoutes() {
+        return staleRoutes;
+    }
+
+    public void setStaleRoutes(List<String> staleRoutes) {
+        this.staleRoutes = staleRoutes;
+    }
+
+    public Duration getStaleTtl() {
+        return staleTtl;
+    }
+
+    public void setStaleTtl(Duration staleTtl) {
+        this.staleTtl = staleTtl;
+    }
+
+    public long getMaxStaleResponses() {
+        return maxStaleResponses;
+    }
+
+    public void setMaxStaleResponses(long maxStaleResponses) {
+        this.maxStaleResponses = maxStaleResponses;
+    }
+}
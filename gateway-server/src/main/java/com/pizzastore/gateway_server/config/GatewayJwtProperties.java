@@ -0,0 +1,34 @@
+package com.pizzastore.gateway_server.config;
+
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+// Edge token verification; the secret must match jwt.secret in user-service and has no default,
+// so a gateway started without one fails instead of trusting a secret from source control
+@Configuration
+@ConfigurationProperties(prefix = "gateway.jwt")
+@Validated
+public class GatewayJwtProperties {
+
+    private boolean enabled = true;
+    @NotBlank(message = "gateway.jwt.secret must be configured")
+    private String secret;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+}
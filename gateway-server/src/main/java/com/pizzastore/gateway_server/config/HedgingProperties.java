@@ -0,0 +1,105 @@
+package com.pizzastore.gateway_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Idempotent GET routes that may send a second request to another instance when the first is slow
+@Configuration
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+    // Hedge once the first request has taken longer than this percentile of recent latencies
+    private double percentile = 0.95;
+    private Duration minDelay = Duration.ofMillis(10);
+    // Below this many observed requests the route is proxied normally while latencies are collected
+    private long minSamples = 50;
+    // Hedges earned per request (at most 1, so hedging never more than doubles backend load)
+    private double budgetRatio = 0.1;
+    // Unused hedges that can be saved up for a burst of slow responses
+    private int maxBudget = 10;
+    private List<Target> routes = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+        this.minDelay = minDelay;
+    }
+
+    public long getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(long minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getMaxBudget() {
+        return maxBudget;
+    }
+
+    public void setMaxBudget(int maxBudget) {
+        this.maxBudget = maxBudget;
+    }
+
+    public List<Target> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Target> routes) {
+        this.routes = routes;
+    }
+
+    public static class Target {
+
+        private String route;
+        // Optional path pattern within the route
+        private String path;
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+}
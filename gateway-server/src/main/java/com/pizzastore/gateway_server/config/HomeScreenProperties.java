@@ -0,0 +1,59 @@
+package com.pizzastore.gateway_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Home screen aggregation: one parallel fan-out to the backends instead of four client round trips
+@Configuration
+@ConfigurationProperties(prefix = "gateway.home-screen")
+public class HomeScreenProperties {
+
+    // Each backend call gets this long; slower sections are left out of the response
+    private Duration callTimeout = Duration.ofSeconds(1);
+    private int recentOrders = 5;
+    private String menuService = "MENU-SERVICE";
+    private String userService = "USER-SERVICE";
+    private String orderService = "ORDER-SERVICE";
+
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    public void setCallTimeout(Duration callTimeout) {
+        this.callTimeout = callTimeout;
+    }
+
+    public int getRecentOrders() {
+        return recentOrders;
+    }
+
+    public void setRecentOrders(int recentOrders) {
+        this.recentOrders = recentOrders;
+    }
+
+    public String getMenuService() {
+        return menuService;
+    }
+
+    public void setMenuService(String menuService) {
+        this.menuService = menuService;
+    }
+
+    public String getUserService() {
+        return userService;
+    }
+
+    public void setUserService(String userService) {
+        this.userService = userService;
+    }
+
+    public String getOrderService() {
+        return orderService;
+    }
+
+    public void setOrderService(String orderService) {
+        this.orderService = orderService;
+    }
+}
@@ -0,0 +1,62 @@
+package com.pizzastore.gateway_server.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Instance selection for lb:// routes; latency-aware replaces the default round robin
+@Configuration
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancingProperties {
+
+    private boolean latencyAware = true;
+    // How quickly observed latency is forgotten; idle slow instances get retried after a few multiples of this
+    private Duration decayTime = Duration.ofSeconds(10);
+    // Assumed latency of an instance that has not answered yet, so new instances are not flooded
+    private Duration initialLatency = Duration.ofMillis(50);
+    // Latency charged for a failed call (error or 5xx), so failing instances are avoided like slow ones
+    private Duration failurePenalty = Duration.ofSeconds(1);
+    // Calls never reported back (cancelled exchanges) stop counting as outstanding after this
+    private Duration inFlightExpiry = Duration.ofSeconds(30);
+
+    public boolean isLatencyAware() {
+        return latencyAware;
+    }
+
+    public void setLatencyAware(boolean latencyAware) {
+        this.latencyAware = latencyAware;
+    }
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public void setDecayTime(Duration decayTime) {
+        this.decayTime = decayTime;
+    }
+
+    public Duration getInitialLatency() {
+        return initialLatency;
+    }
+
+    public void setInitialLatency(Duration initialLatency) {
+        this.initialLatency = initialLatency;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+
+    public Duration getInFlightExpiry() {
+        return inFlightExpiry;
+    }
+
+    public void setInFlightExpiry(Duration inFlightExpiry) {
+        this.inFlightExpiry = inFlightExpiry;
+    }
+}
@@ -0,0 +1,98 @@
+package com.pizzastore.gateway_server.controller;
+
+import com.pizzastore.gateway_server.cache.CachedResponse;
+import com.pizzastore.gateway_server.cache.ResponseKeys;
+import com.pizzastore.gateway_server.cache.StaleResponseCache;
+import com.pizzastore.gateway_server.config.FallbackProperties;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.support.ServiceUnavailableException;
+import org.springframework.cloud.gateway.support.TimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Circuit breaker fallback target (forward:/fallback/{route}). Reads on stale routes are answered
+ * with the last good response recorded by the coalescing filter when there is one; everything
+ * else gets a 503 without waiting on the failing backend.
+ */
+@RestController
+public class FallbackController {
+
+    public static final String FALLBACK_HEADER = "X-Gateway-Fallback";
+
+    private static final Logger logger = LoggerFactory.getLogger(FallbackController.class);
+
+    private final FallbackProperties properties;
+    private final StaleResponseCache staleResponseCache;
+    private final MeterRegistry meterRegistry;
+
+    public FallbackController(FallbackProperties properties, StaleResponseCache staleResponseCache,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.staleResponseCache = staleResponseCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @RequestMapping("/fallback/{route}")
+    public Mono<Void> fallback(@PathVariable String route, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        String reason = reason(cause);
+        ServerHttpResponse response = exchange.getResponse();
+
+        String key = exchange.getAttribute(ResponseKeys.RESPONSE_KEY_ATTR);
+        if (key != null && properties.getStaleRoutes().contains(route)) {
+            CachedResponse stale = staleResponseCache.get(key);
+            if (stale != null) {
+                meterRegistry.counter("pizzeria.gateway.fallback",
+                        "route", route, "reason", reason, "outcome", "stale").increment();
+                response.getHeaders().set(FALLBACK_HEADER, "stale");
+                return stale.writeTo(response);
+            }
+        }
+
+        meterRegistry.counter("pizzeria.gateway.fallback",
+                "route", route, "reason", reason, "outcome", "unavailable").increment();
+        logger.warn("Route {} unavailable ({}): {}", route, reason, cause != null ? cause.getMessage() : "no cause");
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(FALLBACK_HEADER, "unavailable");
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "5");
+        byte[] body = ("{\"status\":503,\"error\":\"Service Unavailable\",\"message\":\"" + route
+                + " is temporarily unavailable\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    // Distinguishes calls rejected locally (open circuit, full bulkhead) from failed upstream calls
+    static String reason(Throwable cause) {
+        if (cause instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (cause instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        if (cause instanceof TimeoutException || cause instanceof java.util.concurrent.TimeoutException
+                || cause instanceof ResponseStatusException e && e.getStatusCode().value() == 504) {
+            return "timeout";
+        }
+        if (cause instanceof ServiceUnavailableException) {
+            return "no_instance";
+        }
+        return "upstream_error";
+    }
+}
@@ -0,0 +1,48 @@
+package com.pizzastore.gateway_server.controller;
+
+import com.pizzastore.gateway_server.aggregation.HomeScreenAggregator;
+import com.pizzastore.gateway_server.security.GatewayJwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Launch screen in one request; anonymous callers get the menu sections only
+@RestController
+public class HomeScreenController {
+
+    private final HomeScreenAggregator aggregator;
+    private final GatewayJwtVerifier jwtVerifier;
+
+    public HomeScreenController(HomeScreenAggregator aggregator, GatewayJwtVerifier jwtVerifier) {
+        this.aggregator = aggregator;
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    @GetMapping("/pizzeria/home")
+    public Mono<ResponseEntity<Map<String, Object>>> home(@RequestHeader HttpHeaders headers) {
+        String token = GatewayJwtVerifier.bearerToken(headers);
+        Long userId = null;
+        if (token != null && jwtVerifier.isEnabled()) {
+            try {
+                Claims claims = jwtVerifier.verify(token);
+                Object claim = claims.get("userId");
+                userId = claim != null ? Long.valueOf(claim.toString()) : null;
+            } catch (JwtException | NumberFormatException e) {
+                return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"")
+                        .body(Map.of("status", 401, "error", "Unauthorized", "message", "Invalid or expired token")));
+            }
+        }
+
+        return aggregator.aggregate(headers.getFirst(HttpHeaders.AUTHORIZATION), userId)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,36 @@
+package com.pizzastore.gateway_server.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the body buffered by {@link HedgingGlobalFilter} after the rest of the chain has run,
+ * the way the Netty write filter does for proxied responses. A circuit breaker that fell back
+ * has already written its own response, which is left alone.
+ */
+@Component
+public class HedgedResponseWriteFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).then(Mono.defer(() -> {
+            byte[] body = exchange.getAttribute(HedgingGlobalFilter.HEDGED_RESPONSE_BODY_ATTR);
+            ServerHttpResponse response = exchange.getResponse();
+            if (body == null || response.isCommitted()) {
+                return Mono.empty();
+            }
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER;
+    }
+}
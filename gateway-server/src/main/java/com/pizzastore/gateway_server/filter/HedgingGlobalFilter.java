@@ -0,0 +1,307 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.config.HedgingProperties;
+import com.pizzastore.gateway_server.hedging.HedgeBudget;
+import com.pizzastore.gateway_server.loadbalancer.InstanceLatencyTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Hedged requests for configured idempotent GET routes: when the instance picked by the load
+ * balancer has not answered within a recent latency percentile, the same request is sent to a
+ * second instance and whichever response arrives first is returned; the other call is cancelled.
+ * Hedges are drawn from a per-route {@link HedgeBudget}. Until enough latencies have been
+ * observed the route is proxied normally.
+ * <p>
+ * Like the Netty routing filter, this only sets the status and headers of the winning response;
+ * the body is written by {@link HedgedResponseWriteFilter} once the rest of the chain (circuit
+ * breakers included) has seen the status.
+ */
+@Component
+public class HedgingGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String HEDGE_TIMER = "pizzeria.gateway.hedge.latency";
+
+    static final String HEDGED_RESPONSE_BODY_ATTR = HedgingGlobalFilter.class.getName() + ".responseBody";
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final HedgingProperties properties;
+    private final List<RouteMatch> targets;
+    private final HttpClient httpClient;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final HttpClientProperties httpClientProperties;
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final ObjectProvider<InstanceLatencyTracker> instanceLatencyTracker;
+    private final UpstreamTimingGlobalFilter upstreamTiming;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RouteState> routeStates = new ConcurrentHashMap<>();
+
+    public HedgingGlobalFilter(HedgingProperties properties, HttpClient httpClient,
+                               ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                               HttpClientProperties httpClientProperties,
+                               LoadBalancerClientFactory loadBalancerClientFactory,
+                               ObjectProvider<InstanceLatencyTracker> instanceLatencyTracker,
+                               UpstreamTimingGlobalFilter upstreamTiming, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.targets = properties.getRoutes().stream()
+                .map(target -> RouteMatch.of(target.getRoute(), target.getPath()))
+                .toList();
+        this.httpClient = httpClient;
+        this.headersFilters = headersFilters;
+        this.httpClientProperties = httpClientProperties;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.instanceLatencyTracker = instanceLatencyTracker;
+        this.upstreamTiming = upstreamTiming;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (!properties.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET || isAlreadyRouted(exchange)
+                || requestUrl == null || !isHttp(requestUrl) || lbResponse == null || !lbResponse.hasServer()
+                || !isTarget(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = RequestTimingGlobalFilter.routeId(exchange);
+        RouteState state = routeStates.computeIfAbsent(routeId, this::newRouteState);
+        state.budget().deposit();
+        long start = System.nanoTime();
+
+        Duration delay = hedgeDelay(state.latency());
+        if (delay == null) {
+            return chain.filter(exchange)
+                    .doOnSuccess(done -> state.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+
+        HttpHeaders requestHeaders = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        ServiceInstance primary = lbResponse.getServer();
+
+        Mono<UpstreamResponse> hedge = Mono.delay(delay)
+                .flatMap(tick -> alternate(primary))
+                .filter(alternate -> {
+                    boolean allowed = state.budget().tryWithdraw();
+                    count(routeId, allowed ? "sent" : "rejected");
+                    return allowed;
+                })
+                .flatMap(alternate -> reported(alternate,
+                        call(LoadBalancerUriTools.reconstructURI(alternate, requestUrl), requestHeaders, true)));
+
+        // The first value wins and cancels the other call; an error only surfaces if neither answers
+        Mono<UpstreamResponse> race = Mono.firstWithValue(call(requestUrl, requestHeaders, false), hedge)
+                .onErrorMap(NoSuchElementException.class, HedgingGlobalFilter::firstCause);
+        Duration timeout = responseTimeout(exchange.getAttribute(GATEWAY_ROUTE_ATTR));
+        if (timeout != null) {
+            race = race.timeout(timeout)
+                    .onErrorMap(TimeoutException.class,
+                            e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Response took longer than " + timeout, e));
+        }
+
+        return race.flatMap(upstream -> {
+            long elapsed = System.nanoTime() - start;
+            state.latency().record(elapsed, TimeUnit.NANOSECONDS);
+            if (upstream.hedge()) {
+                count(routeId, "won");
+            }
+            commit(exchange, upstream, elapsed);
+            return Mono.empty();
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Takes over proxying for hedged routes: after load balancing, ahead of upstream timing and Netty routing
+        return NettyRoutingFilter.ORDER - 2;
+    }
+
+    private boolean isTarget(ServerWebExchange exchange) {
+        for (RouteMatch target : targets) {
+            if (target.matches(exchange)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHttp(URI url) {
+        return "http".equals(url.getScheme()) || "https".equals(url.getScheme());
+    }
+
+    private RouteState newRouteState(String routeId) {
+        Timer latency = Timer.builder(HEDGE_TIMER)
+                .description("Time until the first complete upstream response on hedged routes")
+                .tag("route", routeId)
+                .publishPercentiles(properties.getPercentile())
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        return new RouteState(new HedgeBudget(properties.getBudgetRatio(), properties.getMaxBudget()), latency);
+    }
+
+    private Duration hedgeDelay(Timer latency) {
+        if (latency.count() < properties.getMinSamples()) {
+            return null;
+        }
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            Duration percentile = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            return percentile.compareTo(properties.getMinDelay()) > 0 ? percentile : properties.getMinDelay();
+        }
+        return null;
+    }
+
+    private Duration responseTimeout(Route route) {
+        Object metadata = route != null ? route.getMetadata().get(RESPONSE_TIMEOUT_ATTR) : null;
+        if (metadata != null) {
+            long millis = Long.parseLong(metadata.toString());
+            return millis >= 0 ? Duration.ofMillis(millis) : null;
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+    // Cheapest other instance by the load balancer's own measurements, or any other one without them
+    private Mono<ServiceInstance> alternate(ServiceInstance primary) {
+        ServiceInstanceListSupplier supplier = loadBalancerClientFactory
+                .getLazyProvider(primary.getServiceId(), ServiceInstanceListSupplier.class)
+                .getIfAvailable();
+        if (supplier == null) {
+            return Mono.empty();
+        }
+        InstanceLatencyTracker tracker = instanceLatencyTracker.getIfAvailable();
+        return supplier.get().next().flatMap(instances -> {
+            List<ServiceInstance> others = instances.stream()
+                    .filter(instance -> !(instance.getHost().equals(primary.getHost()) && instance.getPort() == primary.getPort()))
+                    .toList();
+            if (others.isEmpty()) {
+                return Mono.empty();
+            }
+            return Mono.just(tracker != null
+                    ? others.stream().min(Comparator.comparingDouble(tracker::cost)).get()
+                    : others.get(ThreadLocalRandom.current().nextInt(others.size())));
+        });
+    }
+
+    private Mono<UpstreamResponse> call(URI url, HttpHeaders requestHeaders, boolean hedge) {
+        return httpClient
+                .headers(outbound -> {
+                    requestHeaders.forEach(outbound::set);
+                    // Set by Netty from the target URI
+                    outbound.remove(HttpHeaders.HOST);
+                })
+                .get()
+                .uri(url)
+                .responseSingle((response, body) -> body.asByteArray()
+                        .defaultIfEmpty(EMPTY_BODY)
+                        .map(bytes -> {
+                            HttpHeaders headers = new HttpHeaders();
+                            response.responseHeaders().forEach(header -> headers.add(header.getKey(), header.getValue()));
+                            return new UpstreamResponse(url, hedge, response.status().code(), headers, bytes);
+                        }));
+    }
+
+    // The load balancer filter only reports the primary; the hedge goes to the tracker here,
+    // released without a sample when it loses the race and is cancelled
+    private Mono<UpstreamResponse> reported(ServiceInstance instance, Mono<UpstreamResponse> call) {
+        InstanceLatencyTracker tracker = instanceLatencyTracker.getIfAvailable();
+        if (tracker == null) {
+            return call;
+        }
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+        return Mono.defer(() -> {
+                    tracker.onStartRequest(request, lbResponse);
+                    return call;
+                })
+                .doOnSuccess(upstream -> tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS,
+                        request, lbResponse, new ResponseData(HttpStatusCode.valueOf(upstream.status()), upstream.headers(), null, null))))
+                .doOnError(e -> tracker.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, e, request, lbResponse)))
+                .doOnCancel(() -> tracker.onCancel(request, lbResponse));
+    }
+
+    private void commit(ServerWebExchange exchange, UpstreamResponse upstream, long elapsedNanos) {
+        // Report the instance that actually answered
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, upstream.url());
+        setAlreadyRouted(exchange);
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(upstream.status()));
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of), upstream.headers(),
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(upstream.body().length);
+        // Removed again if a circuit breaker falls back
+        HashSet<String> headerNames = new HashSet<>(headers.keySet());
+        headerNames.add(HttpHeaders.CONTENT_LENGTH);
+        exchange.getAttributes().put(CLIENT_RESPONSE_HEADER_NAMES, headerNames);
+        exchange.getAttributes().put(HEDGED_RESPONSE_BODY_ATTR, upstream.body());
+        upstreamTiming.record(exchange, elapsedNanos);
+    }
+
+    private void count(String routeId, String outcome) {
+        meterRegistry.counter("pizzeria.gateway.hedging", "route", routeId, "outcome", outcome).increment();
+    }
+
+    // Both calls failed (or the hedge was never sent): report the underlying error, not the race
+    private static Throwable firstCause(NoSuchElementException e) {
+        return e.getCause() != null ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e;
+    }
+
+    private record RouteState(HedgeBudget budget, Timer latency) {
+    }
+
+    private record UpstreamResponse(URI url, boolean hedge, int status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.security.GatewayJwtVerifier;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies bearer tokens once at the edge and forwards the verified identity to the backends
+ * in trusted headers. Requests without a token pass through so public endpoints keep working;
+ * requests with an invalid or expired token are rejected with 401 before they are routed.
+ * Verification is an in-memory HMAC check, so it runs on the event loop without blocking.
+ */
+@Component
+public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationGlobalFilter.class);
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_NAME_HEADER = "X-User-Name";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"status\":401,\"error\":\"Unauthorized\",\"message\":\"Invalid or expired token\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final GatewayJwtVerifier jwtVerifier;
+
+    public JwtAuthenticationGlobalFilter(GatewayJwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!jwtVerifier.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        String token = GatewayJwtVerifier.bearerToken(exchange.getRequest().getHeaders());
+        Claims claims = null;
+        if (token != null) {
+            try {
+                claims = jwtVerifier.verify(token);
+            } catch (Exception e) {
+                logger.debug("Rejecting request to {}: {}", exchange.getRequest().getPath(), e.getMessage());
+                return unauthorized(exchange);
+            }
+        }
+
+        // Identity headers are only ever set here, never taken from the client
+        Claims verified = claims;
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(USER_ID_HEADER);
+                    headers.remove(USER_NAME_HEADER);
+                    headers.remove(USER_ROLE_HEADER);
+                    if (verified != null) {
+                        setIfPresent(headers, USER_ID_HEADER, verified.get("userId"));
+                        setIfPresent(headers, USER_NAME_HEADER, verified.getSubject());
+                        setIfPresent(headers, USER_ROLE_HEADER, verified.get("role"));
+                    }
+                })
+                .build();
+
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Before routing and any other filter that might forward the request
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private static void setIfPresent(HttpHeaders headers, String name, Object value) {
+        if (value != null) {
+            headers.set(name, value.toString());
+        }
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+
+        DataBuffer buffer = response.bufferFactory().wrap(UNAUTHORIZED_BODY);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,91 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.config.RateLimitProperties;
+import com.pizzastore.gateway_server.ratelimit.InMemoryRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured per-route token bucket limits. Clients are keyed by the user id verified
+ * by {@link JwtAuthenticationGlobalFilter}, or by remote address for anonymous requests.
+ * Rejected requests get 429 with {@code Retry-After}.
+ */
+@Component
+public class RateLimitGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final boolean enabled;
+    private final List<CompiledRule> rules;
+    private final InMemoryRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitGlobalFilter(RateLimitProperties properties, InMemoryRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.rules = properties.getRules().stream()
+                .map(rule -> new CompiledRule(rule, RouteMatch.of(rule.getRoute(), rule.getPath())))
+                .toList();
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RateLimitProperties.Rule rule = enabled ? matchingRule(exchange) : null;
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        long result = rateLimiter.tryConsume(rule, clientKey(exchange));
+        ServerHttpResponse response = exchange.getResponse();
+        if (result >= 0) {
+            response.getHeaders().set(REMAINING_HEADER, Long.toString(result));
+            return chain.filter(exchange);
+        }
+
+        meterRegistry.counter("pizzeria.gateway.ratelimit.rejected", "rule", rule.getName()).increment();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(REMAINING_HEADER, "0");
+        response.getHeaders().set("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result) + 1)));
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        // After JWT verification, so authenticated clients are limited per user
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+
+    private RateLimitProperties.Rule matchingRule(ServerWebExchange exchange) {
+        for (CompiledRule compiled : rules) {
+            if (compiled.match().matches(exchange)) {
+                return compiled.rule();
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst(JwtAuthenticationGlobalFilter.USER_ID_HEADER);
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return "ip:" + (remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : "unknown");
+    }
+
+    private record CompiledRule(RateLimitProperties.Rule rule, RouteMatch match) {
+    }
+}
@@ -0,0 +1,182 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzastore.gateway_server.cache.CachedResponse;
+import com.pizzastore.gateway_server.cache.ResponseKeys;
+import com.pizzastore.gateway_server.cache.StaleResponseCache;
+import com.pizzastore.gateway_server.config.CoalescingProperties;
+import com.pizzastore.gateway_server.controller.FallbackController;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight for configured GET routes: while a request is in flight, identical requests wait
+ * for it and receive a copy of its response instead of going upstream. Successful responses can
+ * additionally be kept for a short micro-cache TTL, and are recorded as the stale fallback for
+ * the circuit breaker. Requests are identical when their {@link ResponseKeys} match.
+ */
+@Component
+public class RequestCoalescingGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_HEADER = "X-Gateway-Cache";
+
+    private final boolean enabled;
+    private final List<RouteMatch> targets;
+    private final long maxCachedBodyBytes;
+    private final Cache<String, CachedResponse> microCache;
+    private final ConcurrentMap<String, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final StaleResponseCache staleResponseCache;
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingGlobalFilter(CoalescingProperties properties, StaleResponseCache staleResponseCache,
+                                         MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.targets = properties.getRoutes().stream()
+                .map(target -> RouteMatch.of(target.getRoute(), target.getPath()))
+                .toList();
+        this.maxCachedBodyBytes = properties.getMaxCachedBodySize().toBytes();
+        this.microCache = properties.getMicroCacheTtl().isPositive()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getMaxCachedResponses())
+                        .expireAfterWrite(properties.getMicroCacheTtl())
+                        .build()
+                : null;
+        this.staleResponseCache = staleResponseCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || exchange.getRequest().getMethod() != HttpMethod.GET || !isTarget(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        String key = ResponseKeys.of(exchange.getRequest().getURI(), exchange.getRequest().getHeaders());
+        exchange.getAttributes().put(ResponseKeys.RESPONSE_KEY_ATTR, key);
+        CachedResponse cached = microCache != null ? microCache.getIfPresent(key) : null;
+        if (cached != null) {
+            return write(exchange, cached, "HIT");
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Mono<CachedResponse> flight = sink.asMono();
+        Mono<CachedResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            // Fall back to an own upstream call if the shared one failed or was not shareable
+            return existing
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorReturn(Optional.empty())
+                    .flatMap(shared -> shared.isPresent()
+                            ? write(exchange, shared.get(), "SHARED")
+                            : chain.filter(exchange));
+        }
+
+        exchange.getResponse().getHeaders().set(CACHE_HEADER, "MISS");
+        ServerHttpResponse capturing = new CapturingResponse(exchange.getResponse(), key, sink, flight);
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    // No-op if the response was already captured
+                    sink.tryEmitEmpty();
+                    inFlight.remove(key, flight);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // After authentication and rate limiting, so every caller is still checked and counted
+        return Ordered.HIGHEST_PRECEDENCE + 30;
+    }
+
+    private boolean isTarget(ServerWebExchange exchange) {
+        for (RouteMatch target : targets) {
+            if (target.matches(exchange)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, CachedResponse shared, String outcome) {
+        meterRegistry.counter("pizzeria.gateway.coalescing", "outcome", outcome).increment();
+        exchange.getResponse().getHeaders().set(CACHE_HEADER, outcome);
+        return shared.writeTo(exchange.getResponse());
+    }
+
+    // Buffers the leader's body once, hands a copy to the waiters, then writes it to its own client
+    private class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Sinks.One<CachedResponse> sink;
+        private final Mono<CachedResponse> flight;
+
+        CapturingResponse(ServerHttpResponse delegate, String key, Sinks.One<CachedResponse> sink, Mono<CachedResponse> flight) {
+            super(delegate);
+            this.key = key;
+            this.sink = sink;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        share(bytes);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streaming responses are passed through; waiters make their own call
+            sink.tryEmitEmpty();
+            return super.writeAndFlushWith(body);
+        }
+
+        private void share(byte[] body) {
+            CachedResponse shared = CachedResponse.of(getStatusCode(), getDelegate().getHeaders(), body);
+            shared.headers().remove(CACHE_HEADER);
+
+            // Only genuine upstream successes are worth keeping; fallback responses are not re-cached
+            boolean cacheable = shared.status().is2xxSuccessful() && body.length <= maxCachedBodyBytes
+                    && !getDelegate().getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    && !getDelegate().getHeaders().containsKey(FallbackController.FALLBACK_HEADER);
+            if (cacheable) {
+                staleResponseCache.put(key, shared);
+                // Cache before leaving the in-flight map, so a request arriving in between finds one or the other
+                if (microCache != null) {
+                    microCache.put(key, shared);
+                }
+            }
+            inFlight.remove(key, flight);
+            sink.tryEmitValue(shared);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.pizzastore.gateway_server.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Measures the total time each routed request spends in the gateway, per route and downstream
+ * instance, and reports it together with the upstream time from {@link UpstreamTimingGlobalFilter}
+ * in the {@code Server-Timing} and {@code X-Response-Time} response headers.
+ */
+@Component
+public class RequestTimingGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String TOTAL_TIMER = "pizzeria.gateway.requests";
+
+    static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestTimingGlobalFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        ServerHttpResponse response = exchange.getResponse();
+
+        // Headers must be added before the response is committed, so the total here is time to first byte
+        response.beforeCommit(() -> {
+            long totalNanos = System.nanoTime() - start;
+            Long upstreamNanos = exchange.getAttribute(UpstreamTimingGlobalFilter.UPSTREAM_NANOS_ATTR);
+
+            StringBuilder serverTiming = new StringBuilder();
+            if (upstreamNanos != null) {
+                serverTiming.append("upstream;dur=").append(toMillis(upstreamNanos)).append(", ");
+            }
+            serverTiming.append("gateway;dur=").append(toMillis(totalNanos));
+            response.getHeaders().set("Server-Timing", serverTiming.toString());
+            response.getHeaders().set("X-Response-Time", toMillis(totalNanos) + "ms");
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doFinally(signal -> Timer.builder(TOTAL_TIMER)
+                        .description("Total time spent on a request in the gateway, including the upstream call")
+                        .tag("route", routeId(exchange))
+                        .tag("instance", instance(exchange))
+                        .tag("status", status(response.getStatusCode()))
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public int getOrder() {
+        // Outermost, so the measurement covers every other filter
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : UNKNOWN;
+    }
+
+    // The load-balanced host:port the request was sent to, once the route URL has been resolved
+    static String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        return url != null && url.getHost() != null ? url.getHost() + ":" + url.getPort() : UNKNOWN;
+    }
+
+    static String status(HttpStatusCode statusCode) {
+        return statusCode != null ? Integer.toString(statusCode.value()) : UNKNOWN;
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,248 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.cache.CompressedResponseCache;
+import com.pizzastore.gateway_server.compression.ContentCoding;
+import com.pizzastore.gateway_server.config.CompressionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses responses on allowlisted routes with the best coding the client accepts (zstd, br,
+ * gzip by default). The upstream call is made without Accept-Encoding, so coalesced and cached
+ * responses are shared uncompressed and each client gets its own coding. Bodies with a strong
+ * ETag are compressed once per coding and reused from {@link CompressedResponseCache}.
+ */
+@Component
+public class ResponseCompressionGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String BYTES_SAVED = "pizzeria.gateway.compression.bytes.saved";
+    public static final String CPU_TIMER = "pizzeria.gateway.compression.cpu";
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final boolean enabled;
+    private final long minResponseBytes;
+    private final List<ContentCoding> preference;
+    private final List<MimeType> mimeTypes;
+    private final List<RouteMatch> targets;
+    private final CompressionProperties properties;
+    private final CompressedResponseCache compressedResponses;
+    private final MeterRegistry meterRegistry;
+    private final boolean cpuTimeSupported;
+
+    public ResponseCompressionGlobalFilter(CompressionProperties properties, CompressedResponseCache compressedResponses,
+                                           MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.minResponseBytes = properties.getMinResponseSize().toBytes();
+        this.preference = properties.getEncodings().stream().map(ContentCoding::fromToken).toList();
+        this.mimeTypes = properties.getMimeTypes().stream().map(MimeTypeUtils::parseMimeType).toList();
+        this.targets = properties.getRoutes().stream()
+                .map(target -> RouteMatch.of(target.getRoute(), target.getPath()))
+                .toList();
+        this.properties = properties;
+        this.compressedResponses = compressedResponses;
+        this.meterRegistry = meterRegistry;
+        this.cpuTimeSupported = threads.isCurrentThreadCpuTimeSupported();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled || exchange.getRequest().getMethod() == HttpMethod.HEAD || !isTarget(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        ContentCoding coding = ContentCoding.negotiate(
+                exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING), preference);
+        ServerHttpRequest request = coding != null
+                // The gateway owns the encoding; backends answer uncompressed over the local network
+                ? exchange.getRequest().mutate().headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING)).build()
+                : exchange.getRequest();
+        ServerHttpResponse response = new CompressingResponse(exchange.getResponse(), coding,
+                RequestTimingGlobalFilter.routeId(exchange), exchange.getRequest().getURI().getRawPath()
+                        + (exchange.getRequest().getURI().getRawQuery() != null
+                        ? "?" + exchange.getRequest().getURI().getRawQuery() : ""));
+        return chain.filter(exchange.mutate().request(request).response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Outside request coalescing, so shared responses are encoded per client
+        return Ordered.HIGHEST_PRECEDENCE + 25;
+    }
+
+    private boolean isTarget(ServerWebExchange exchange) {
+        for (RouteMatch target : targets) {
+            if (target.matches(exchange)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompressible(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || !status.is2xxSuccessful() || status.value() == HttpStatus.NO_CONTENT.value()
+                || status.value() == HttpStatus.PARTIAL_CONTENT.value()) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || headers.containsKey(HttpHeaders.CONTENT_RANGE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && cacheControl.contains("no-transform")) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength >= 0 && contentLength < minResponseBytes) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        for (MimeType mimeType : mimeTypes) {
+            if (mimeType.includes(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void varyOnAcceptEncoding(HttpHeaders headers) {
+        List<String> vary = headers.getVary();
+        for (String value : vary) {
+            if (value.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING) || value.equals("*")) {
+                return;
+            }
+        }
+        List<String> updated = new ArrayList<>(vary);
+        updated.add(HttpHeaders.ACCEPT_ENCODING);
+        headers.setVary(updated);
+    }
+
+    private long cpuNanos() {
+        return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // Buffers the body once it is known to be compressible, then writes the encoded bytes
+    private class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ContentCoding coding;
+        private final String route;
+        private final String request;
+
+        CompressingResponse(ServerHttpResponse delegate, ContentCoding coding, String route, String request) {
+            super(delegate);
+            this.coding = coding;
+            this.route = route;
+            this.request = request;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getDelegate().getHeaders();
+            varyOnAcceptEncoding(headers);
+            if (coding == null || !isCompressible(getStatusCode(), headers)) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        if (joined.readableByteCount() < minResponseBytes) {
+                            return super.writeWith(Mono.just(joined));
+                        }
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        byte[] encoded = encode(bytes, headers);
+                        if (encoded.length >= bytes.length) {
+                            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                        }
+                        headers.set(HttpHeaders.CONTENT_ENCODING, coding.token());
+                        headers.setContentLength(encoded.length);
+                        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+                        String etag = headers.getETag();
+                        if (etag != null && !etag.startsWith("W/")) {
+                            // Same entity, different bytes: a strong validator no longer applies
+                            headers.setETag("W/" + etag);
+                        }
+                        meterRegistry.counter(BYTES_SAVED, "route", route, "encoding", coding.token())
+                                .increment(bytes.length - encoded.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(encoded)));
+                    })
+                    .switchIfEmpty(Mono.defer(() -> super.writeWith(Flux.empty())));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streaming responses (NDJSON exports) are passed through as they are produced
+            varyOnAcceptEncoding(getDelegate().getHeaders());
+            return super.writeAndFlushWith(body);
+        }
+
+        private byte[] encode(byte[] body, HttpHeaders headers) {
+            String etag = headers.getETag();
+            String key = etag != null && !etag.startsWith("W/") && HttpStatus.OK.equals(getStatusCode())
+                    ? CompressedResponseCache.key(coding.token(), request, etag)
+                    : null;
+            if (key != null) {
+                byte[] cached = compressedResponses.get(key);
+                if (cached != null) {
+                    meterRegistry.counter("pizzeria.gateway.compression.responses",
+                            "route", route, "encoding", coding.token(), "outcome", "reused").increment();
+                    return cached;
+                }
+            }
+
+            long start = cpuNanos();
+            byte[] encoded = coding.encode(body, level());
+            Timer.builder(CPU_TIMER)
+                    .description("CPU time spent compressing response bodies")
+                    .tag("route", route)
+                    .tag("encoding", coding.token())
+                    .register(meterRegistry)
+                    .record(cpuNanos() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("pizzeria.gateway.compression.responses",
+                    "route", route, "encoding", coding.token(), "outcome", "compressed").increment();
+
+            if (key != null && encoded.length < body.length) {
+                compressedResponses.put(key, encoded);
+            }
+            return encoded;
+        }
+
+        private int level() {
+            return switch (coding) {
+                case ZSTD -> properties.getZstdLevel();
+                case BROTLI -> properties.getBrotliQuality();
+                case GZIP -> properties.getGzipLevel();
+            };
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.pizzastore.gateway_server.filter;
+
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+// A route id plus an optional path pattern, as used by the configurable filters
+record RouteMatch(String routeId, PathPattern path) {
+
+    static RouteMatch of(String routeId, String path) {
+        return new RouteMatch(routeId, path != null ? PathPatternParser.defaultInstance.parse(path) : null);
+    }
+
+    boolean matches(ServerWebExchange exchange) {
+        return routeId.equals(RequestTimingGlobalFilter.routeId(exchange))
+                && (path == null || path.matches(exchange.getRequest().getPath().pathWithinApplication()));
+    }
+}
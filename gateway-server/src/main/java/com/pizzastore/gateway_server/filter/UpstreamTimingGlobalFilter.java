@@ -0,0 +1,62 @@
+package com.pizzastore.gateway_server.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the upstream call alone: from just before the request is proxied until the
+ * downstream instance has returned its response headers. Runs after load balancing, so the
+ * chosen instance is known.
+ */
+@Component
+public class UpstreamTimingGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_TIMER = "pizzeria.gateway.upstream";
+
+    static final String UPSTREAM_NANOS_ATTR = UpstreamTimingGlobalFilter.class.getName() + ".upstreamNanos";
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamTimingGlobalFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+
+        return chain.filter(exchange)
+                // Before completion propagates, so the value is there when the response is committed
+                .doOnTerminate(() -> record(exchange, System.nanoTime() - start));
+    }
+
+    // Also used by routing filters that proxy the call themselves (see HedgingGlobalFilter)
+    void record(ServerWebExchange exchange, long upstreamNanos) {
+        exchange.getAttributes().put(UPSTREAM_NANOS_ATTR, upstreamNanos);
+
+        Timer.builder(UPSTREAM_TIMER)
+                .description("Time until the downstream instance returned response headers")
+                .tag("route", RequestTimingGlobalFilter.routeId(exchange))
+                .tag("instance", RequestTimingGlobalFilter.instance(exchange))
+                .tag("status", RequestTimingGlobalFilter.status(exchange.getResponse().getStatusCode()))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(upstreamNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int getOrder() {
+        // Immediately before the proxying filter
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
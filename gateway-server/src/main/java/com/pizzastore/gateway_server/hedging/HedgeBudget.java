@@ -0,0 +1,42 @@
+package com.pizzastore.gateway_server.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedges are earned, not free: every request deposits a fraction of a hedge and every hedge
+ * withdraws a whole one. With a ratio of at most 1 the hedges can never outnumber the requests,
+ * however slow the backend gets. Starts empty so a cold route cannot burst.
+ */
+public class HedgeBudget {
+
+    // Fixed point, so deposits and withdrawals stay a single atomic long
+    private static final long UNIT = 1000;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double ratio, int maxBudget) {
+        if (ratio <= 0 || ratio > 1) {
+            throw new IllegalArgumentException("Hedge budget ratio must be in (0, 1], was " + ratio);
+        }
+        this.depositPerRequest = Math.round(ratio * UNIT);
+        this.capacity = Math.max(maxBudget, 1) * UNIT;
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(current + deposit, capacity));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+}
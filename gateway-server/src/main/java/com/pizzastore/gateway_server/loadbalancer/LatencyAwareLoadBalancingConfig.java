@@ -0,0 +1,21 @@
+package com.pizzastore.gateway_server.loadbalancer;
+
+import com.pizzastore.gateway_server.config.LoadBalancingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Shared tracker lives in the application context so every per-service load balancer context sees the same stats
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.load-balancer", name = "latency-aware", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancingConfig {
+
+    @Bean
+    public InstanceLatencyTracker instanceLatencyTracker(LoadBalancingProperties properties) {
+        return new InstanceLatencyTracker(
+                properties.getDecayTime(), properties.getInitialLatency(), properties.getFailurePenalty(),
+                properties.getInFlightExpiry());
+    }
+}
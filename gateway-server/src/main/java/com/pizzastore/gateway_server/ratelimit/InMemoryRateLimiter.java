@@ -0,0 +1,35 @@
+package com.pizzastore.gateway_server.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzastore.gateway_server.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets per rule and client, kept in a size-bounded concurrent map that drops idle clients.
+ * Buckets live on this gateway instance only; with several instances each enforces its own limit.
+ */
+@Component
+public class InMemoryRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public InMemoryRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets");
+    }
+
+    // Same contract as TokenBucket.tryConsume
+    public long tryConsume(RateLimitProperties.Rule rule, String clientKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(rule.getName() + '|' + clientKey,
+                key -> new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond(), now));
+        return bucket.tryConsume(now);
+    }
+}
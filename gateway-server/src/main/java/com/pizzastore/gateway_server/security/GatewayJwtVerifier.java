@@ -0,0 +1,45 @@
+package com.pizzastore.gateway_server.security;
+
+import com.pizzastore.gateway_server.config.GatewayJwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+// HMAC verification of user-service tokens; in-memory only, so safe to call on the event loop
+@Component
+public class GatewayJwtVerifier {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final boolean enabled;
+    private final JwtParser jwtParser;
+
+    public GatewayJwtVerifier(GatewayJwtProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(properties.getSecret().getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // The bearer token of the request, or null when it carries none
+    public static String bearerToken(HttpHeaders headers) {
+        String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.startsWith(BEARER_PREFIX)
+                ? authorization.substring(BEARER_PREFIX.length())
+                : null;
+    }
+
+    public Claims verify(String token) throws JwtException {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,167 @@
+package com.pizzastore.gateway_server.aggregation;
+
+import com.pizzastore.gateway_server.config.GatewayJwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"eureka.client.enabled=false",
+		"gateway.home-screen.call-timeout=300ms",
+		"gateway.home-screen.recent-orders=3"
+})
+class HomeScreenAggregationTests {
+
+	private static final AtomicBoolean ordersSlow = new AtomicBoolean();
+	private static final AtomicReference<String> ordersQuery = new AtomicReference<>();
+	private static final AtomicReference<String> profileAuthorization = new AtomicReference<>();
+	private static DisposableServer menu;
+	private static DisposableServer users;
+	private static DisposableServer orders;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private GatewayJwtProperties jwtProperties;
+
+	@BeforeAll
+	static void startBackends() {
+		menu = HttpServer.create().port(0)
+				.route(routes -> routes
+						.get("/api/menu/categories", (request, response) -> json(response, "[\"PIZZA\",\"DRINK\"]"))
+						.get("/api/menu/items", (request, response) -> json(response, "[{\"id\":1,\"name\":\"Margherita\"}]")))
+				.bindNow();
+		users = HttpServer.create().port(0)
+				.route(routes -> routes.get("/api/users/profile", (request, response) -> {
+					profileAuthorization.set(request.requestHeaders().get(HttpHeaders.AUTHORIZATION));
+					return json(response, "{\"id\":7,\"username\":\"customer1\"}");
+				}))
+				.bindNow();
+		orders = HttpServer.create().port(0)
+				.route(routes -> routes.get("/api/orders/user/{userId}", (request, response) -> {
+					ordersQuery.set(request.uri());
+					Mono<String> body = Mono.just("[{\"id\":42,\"status\":\"DELIVERED\"}]");
+					if (ordersSlow.get()) {
+						body = body.delayElement(Duration.ofSeconds(2));
+					}
+					return response.header(HttpHeaders.CONTENT_TYPE, "application/json").sendString(body);
+				}))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopBackends() {
+		menu.disposeNow();
+		users.disposeNow();
+		orders.disposeNow();
+	}
+
+	@DynamicPropertySource
+	static void stubInstances(DynamicPropertyRegistry registry) {
+		registry.add("spring.cloud.discovery.client.simple.instances.MENU-SERVICE[0].uri", () -> "http://localhost:" + menu.port());
+		registry.add("spring.cloud.discovery.client.simple.instances.USER-SERVICE[0].uri", () -> "http://localhost:" + users.port());
+		registry.add("spring.cloud.discovery.client.simple.instances.ORDER-SERVICE[0].uri", () -> "http://localhost:" + orders.port());
+	}
+
+	@BeforeEach
+	void warmUp() {
+		// The first call pays for load balancer and connection setup, which can exceed the short test timeout
+		webTestClient.get().uri("/pizzeria/home")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(jwtProperties.getSecret()))
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	void signedInHomeScreenCombinesAllBackends() {
+		String authorization = "Bearer " + token(jwtProperties.getSecret());
+
+		webTestClient.get().uri("/pizzeria/home")
+				.header(HttpHeaders.AUTHORIZATION, authorization)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.categories[0]").isEqualTo("PIZZA")
+				.jsonPath("$.items[0].name").isEqualTo("Margherita")
+				.jsonPath("$.profile.username").isEqualTo("customer1")
+				.jsonPath("$.recentOrders[0].id").isEqualTo(42)
+				.jsonPath("$.partial").isEqualTo(false)
+				.jsonPath("$.unavailable").isEmpty();
+
+		assertThat(profileAuthorization.get()).isEqualTo(authorization);
+		assertThat(ordersQuery.get()).isEqualTo("/api/orders/user/7?limit=3");
+	}
+
+	@Test
+	void slowBackendOnlyCostsItsOwnSection() {
+		ordersSlow.set(true);
+		try {
+			long start = System.nanoTime();
+			webTestClient.get().uri("/pizzeria/home")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(jwtProperties.getSecret()))
+					.exchange()
+					.expectStatus().isOk()
+					.expectBody()
+					.jsonPath("$.items[0].name").isEqualTo("Margherita")
+					.jsonPath("$.profile.username").isEqualTo("customer1")
+					.jsonPath("$.recentOrders").doesNotExist()
+					.jsonPath("$.partial").isEqualTo(true)
+					.jsonPath("$.unavailable[0]").isEqualTo("recentOrders");
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+		} finally {
+			ordersSlow.set(false);
+		}
+	}
+
+	@Test
+	void anonymousHomeScreenHasMenuOnlyAndBadTokensAreRejected() {
+		webTestClient.get().uri("/pizzeria/home")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.categories[1]").isEqualTo("DRINK")
+				.jsonPath("$.profile").doesNotExist()
+				.jsonPath("$.partial").isEqualTo(false);
+
+		webTestClient.get().uri("/pizzeria/home")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	private static Mono<Void> json(HttpServerResponse response, String body) {
+		return response.header(HttpHeaders.CONTENT_TYPE, "application/json").sendString(Mono.just(body)).then();
+	}
+
+	private static String token(String secret) {
+		return Jwts.builder()
+				.subject("customer1")
+				.claim("userId", 7)
+				.claim("role", "CUSTOMER")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
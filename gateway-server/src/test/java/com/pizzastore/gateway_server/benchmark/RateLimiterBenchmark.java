@@ -0,0 +1,74 @@
+package com.pizzastore.gateway_server.benchmark;
+
+import com.pizzastore.gateway_server.config.RateLimitProperties;
+import com.pizzastore.gateway_server.ratelimit.InMemoryRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link InMemoryRateLimiter} with all cores hammering it, either on one shared
+ * client key (worst-case contention on a single bucket) or spread over many clients.
+ * Run with {@code main} from the test classpath; not part of the regular test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    private int clientCount;
+
+    private InMemoryRateLimiter rateLimiter;
+    private RateLimitProperties.Rule rule;
+    private String[] clientKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rateLimiter = new InMemoryRateLimiter(new RateLimitProperties(), new SimpleMeterRegistry());
+
+        // Large enough that requests are never rejected, so only the limiter overhead is measured
+        rule = new RateLimitProperties.Rule();
+        rule.setName("benchmark");
+        rule.setCapacity(Integer.MAX_VALUE);
+        rule.setRefillPerSecond(1_000_000_000);
+
+        clientKeys = new String[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clientKeys[i] = "user:" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryConsume() {
+        String clientKey = clientKeys[ThreadLocalRandom.current().nextInt(clientKeys.length)];
+        return rateLimiter.tryConsume(rule, clientKey);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
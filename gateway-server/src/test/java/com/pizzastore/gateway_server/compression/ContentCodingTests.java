@@ -0,0 +1,53 @@
+package com.pizzastore.gateway_server.compression;
+
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.github.luben.zstd.Zstd;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCodingTests {
+
+	private static final List<ContentCoding> PREFERENCE = List.of(ContentCoding.ZSTD, ContentCoding.BROTLI, ContentCoding.GZIP);
+
+	@Test
+	void serverPreferenceWinsAmongAcceptedCodings() {
+		assertThat(ContentCoding.negotiate("gzip, deflate, br, zstd", PREFERENCE)).isEqualTo(ContentCoding.ZSTD);
+		assertThat(ContentCoding.negotiate("gzip, br", PREFERENCE)).isEqualTo(ContentCoding.BROTLI);
+		assertThat(ContentCoding.negotiate("gzip;q=0.5", PREFERENCE)).isEqualTo(ContentCoding.GZIP);
+		assertThat(ContentCoding.negotiate("*", List.of(ContentCoding.GZIP))).isEqualTo(ContentCoding.GZIP);
+	}
+
+	@Test
+	void refusedOrMissingCodingsAreNotUsed() {
+		assertThat(ContentCoding.negotiate(null, PREFERENCE)).isNull();
+		assertThat(ContentCoding.negotiate("identity", PREFERENCE)).isNull();
+		assertThat(ContentCoding.negotiate("zstd;q=0, br;q=0, gzip", PREFERENCE)).isEqualTo(ContentCoding.GZIP);
+		assertThat(ContentCoding.negotiate("*, gzip;q=0", List.of(ContentCoding.GZIP))).isNull();
+	}
+
+	@Test
+	void everyCodingRoundTrips() throws Exception {
+		byte[] body = "{\"name\":\"Margherita\",\"price\":9.5}".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+		byte[] gzip = ContentCoding.GZIP.encode(body, 6);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			assertThat(in.readAllBytes()).isEqualTo(body);
+		}
+
+		assertThat(ContentCoding.ZSTD.isAvailable()).isTrue();
+		byte[] zstd = ContentCoding.ZSTD.encode(body, 3);
+		assertThat(Zstd.decompress(zstd, body.length)).isEqualTo(body);
+
+		assertThat(ContentCoding.BROTLI.isAvailable()).isTrue();
+		byte[] brotli = ContentCoding.BROTLI.encode(body, 5);
+		assertThat(Decoder.decompress(brotli).getDecompressedData()).isEqualTo(body);
+
+		assertThat(gzip.length).isLessThan(body.length / 10);
+	}
+}
@@ -0,0 +1,29 @@
+package com.pizzastore.gateway_server.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayJwtPropertiesTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class, ValidationAutoConfiguration.class))
+			.withUserConfiguration(GatewayJwtProperties.class);
+
+	@Test
+	void startupFailsWithoutASecret() {
+		contextRunner.run(context -> assertThat(context).hasFailed()
+				.getFailure().hasStackTraceContaining("gateway.jwt.secret must be configured"));
+		contextRunner.withPropertyValues("gateway.jwt.secret= ").run(context -> assertThat(context).hasFailed());
+	}
+
+	@Test
+	void configuredSecretIsBound() {
+		contextRunner.withPropertyValues("gateway.jwt.secret=from-the-environment")
+				.run(context -> assertThat(context.getBean(GatewayJwtProperties.class).getSecret()).isEqualTo("from-the-environment"));
+	}
+}
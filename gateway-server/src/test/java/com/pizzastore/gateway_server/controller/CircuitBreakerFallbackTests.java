@@ -0,0 +1,187 @@
+package com.pizzastore.gateway_server.controller;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"gateway.coalescing.routes[0].route=stub-menu",
+		"gateway.coalescing.routes[0].path=/stub/menu/**",
+		"gateway.fallback.stale-routes[0]=stub-menu",
+		"resilience4j.bulkhead.instances.stub-bulkhead.max-concurrent-calls=2",
+		"resilience4j.circuitbreaker.instances.stub-failing.sliding-window-size=4",
+		"resilience4j.circuitbreaker.instances.stub-failing.minimum-number-of-calls=4",
+		"resilience4j.circuitbreaker.instances.stub-failing.wait-duration-in-open-state=1m"
+})
+class CircuitBreakerFallbackTests {
+
+	private static final AtomicBoolean menuFailing = new AtomicBoolean();
+	private static final AtomicInteger bulkheadCalls = new AtomicInteger();
+	private static final AtomicInteger failingCalls = new AtomicInteger();
+	private static DisposableServer backend;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	static void startBackend() {
+		backend = HttpServer.create().port(0)
+				.route(routes -> routes
+						.get("/stub/menu/{name}", (request, response) -> menuFailing.get()
+								? response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).sendString(Mono.just("boom"))
+								: response.header("Content-Type", "application/json")
+										.sendString(Mono.just("{\"menu\":\"" + request.param("name") + "\"}")))
+						.get("/stub/slow", (request, response) ->
+								response.sendString(Mono.just("slow").delayElement(Duration.ofSeconds(2))))
+						.get("/stub/bulkhead", (request, response) -> {
+							bulkheadCalls.incrementAndGet();
+							return response.sendString(Mono.just("ok").delayElement(Duration.ofMillis(500)));
+						})
+						.get("/stub/failing", (request, response) -> {
+							failingCalls.incrementAndGet();
+							return response.status(HttpResponseStatus.BAD_GATEWAY).sendString(Mono.just("down"));
+						}))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopBackend() {
+		backend.disposeNow();
+	}
+
+	@Test
+	void failingMenuReadIsAnsweredWithLastGoodResponse() {
+		menuFailing.set(false);
+		webTestClient.get().uri("/stub/menu/pizza").exchange()
+				.expectStatus().isOk()
+				.expectHeader().doesNotExist(FallbackController.FALLBACK_HEADER);
+
+		menuFailing.set(true);
+		try {
+			webTestClient.get().uri("/stub/menu/pizza").exchange()
+					.expectStatus().isOk()
+					.expectHeader().valueEquals(FallbackController.FALLBACK_HEADER, "stale")
+					.expectBody(String.class).isEqualTo("{\"menu\":\"pizza\"}");
+
+			// Nothing cached for this one yet
+			webTestClient.get().uri("/stub/menu/pasta").exchange()
+					.expectStatus().isEqualTo(503)
+					.expectHeader().valueEquals(FallbackController.FALLBACK_HEADER, "unavailable");
+		} finally {
+			menuFailing.set(false);
+		}
+	}
+
+	@Test
+	void slowUpstreamTimesOutIntoFallback() {
+		webTestClient.get().uri("/stub/slow").exchange()
+				.expectStatus().isEqualTo(503)
+				.expectHeader().valueEquals(FallbackController.FALLBACK_HEADER, "unavailable");
+
+		assertThat(meterRegistry.get("pizzeria.gateway.fallback")
+				.tags("route", "stub-slow", "reason", "timeout").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void bulkheadRejectsCallsBeyondItsLimit() {
+		bulkheadCalls.set(0);
+		WebClient client = WebClient.create("http://localhost:" + port);
+		List<HttpStatusCode> statuses = Flux.range(0, 6)
+				.flatMap(i -> client.get().uri("/stub/bulkhead")
+						.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode())), 6)
+				.collectList()
+				.block(Duration.ofSeconds(10));
+
+		assertThat(bulkheadCalls.get()).isLessThanOrEqualTo(2);
+		assertThat(statuses).filteredOn(status -> status.value() == 503).hasSizeGreaterThanOrEqualTo(4);
+		assertThat(meterRegistry.get("pizzeria.gateway.fallback")
+				.tags("route", "stub-bulkhead", "reason", "bulkhead_full").counter().count()).isGreaterThanOrEqualTo(4);
+	}
+
+	@Test
+	void circuitOpensAfterRepeatedFailuresAndStopsCallingUpstream() {
+		failingCalls.set(0);
+		for (int i = 0; i < 4; i++) {
+			webTestClient.get().uri("/stub/failing").exchange().expectStatus().isEqualTo(503);
+		}
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("stub-failing");
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		webTestClient.get().uri("/stub/failing").exchange().expectStatus().isEqualTo(503);
+		assertThat(failingCalls.get()).isEqualTo(4);
+
+		assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+				.tags("name", "stub-failing", "state", "open").gauge().value()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("pizzeria.gateway.fallback")
+				.tags("route", "stub-failing", "reason", "circuit_open").counter().count()).isEqualTo(1);
+		webTestClient.get().uri("/actuator/circuitbreakers").exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.circuitBreakers.stub-failing.state").isEqualTo("OPEN");
+	}
+
+	@TestConfiguration
+	static class StubRouteConfig {
+
+		private static final Set<String> FAILURE_STATUSES = Set.of("500", "502", "503", "504");
+
+		@Bean
+		RouteLocator stubRoutes(RouteLocatorBuilder routeLocatorBuilder) {
+			String uri = "http://localhost:" + backend.port();
+			return routeLocatorBuilder.routes()
+					.route("stub-menu", p -> p.path("/stub/menu/**")
+							.filters(f -> f.circuitBreaker(c -> c.setName("stub-menu")
+									.setFallbackUri("forward:/fallback/stub-menu").setStatusCodes(FAILURE_STATUSES)))
+							.uri(uri))
+					.route("stub-slow", p -> p.path("/stub/slow")
+							.filters(f -> f.circuitBreaker(c -> c.setName("stub-slow")
+									.setFallbackUri("forward:/fallback/stub-slow")))
+							.metadata(RESPONSE_TIMEOUT_ATTR, 200)
+							.uri(uri))
+					.route("stub-bulkhead", p -> p.path("/stub/bulkhead")
+							.filters(f -> f.circuitBreaker(c -> c.setName("stub-bulkhead")
+									.setFallbackUri("forward:/fallback/stub-bulkhead")))
+							.uri(uri))
+					.route("stub-failing", p -> p.path("/stub/failing")
+							.filters(f -> f.circuitBreaker(c -> c.setName("stub-failing")
+									.setFallbackUri("forward:/fallback/stub-failing").setStatusCodes(FAILURE_STATUSES)))
+							.uri(uri))
+					.build();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.pizzastore.gateway_server.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+class GatewayTimingTests {
+
+	private static DisposableServer backend;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	static void startBackend() {
+		backend = HttpServer.create().port(0)
+				.route(routes -> routes.get("/stub/hello", (request, response) -> response.sendString(Mono.just("hello"))))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopBackend() {
+		backend.disposeNow();
+	}
+
+	@Test
+	void routedRequestsAreTimedPerRouteAndInstance() throws InterruptedException {
+		String serverTiming = webTestClient.get().uri("/stub/hello")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().exists("X-Response-Time")
+				.returnResult(String.class)
+				.getResponseHeaders().getFirst("Server-Timing");
+
+		assertThat(serverTiming).matches("upstream;dur=\\d+\\.\\d, gateway;dur=\\d+\\.\\d");
+
+		String instance = "localhost:" + backend.port();
+		Timer upstream = meterRegistry.find(UpstreamTimingGlobalFilter.UPSTREAM_TIMER)
+				.tags("route", "stub", "instance", instance, "status", "200").timer();
+		// The total is recorded once the body has been flushed, which can be just after the client has it
+		Timer total;
+		long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+		while ((total = meterRegistry.find(RequestTimingGlobalFilter.TOTAL_TIMER)
+				.tags("route", "stub", "instance", instance, "status", "200").timer()) == null
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(upstream).isNotNull();
+		assertThat(total).isNotNull();
+		assertThat(upstream.count()).isEqualTo(1);
+
+		webTestClient.get().uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class)
+				.value(body -> assertThat(body).contains("pizzeria_gateway_upstream_seconds_bucket"));
+	}
+
+	@TestConfiguration
+	static class StubRouteConfig {
+
+		@Bean
+		RouteLocator stubRoute(RouteLocatorBuilder routeLocatorBuilder) {
+			return routeLocatorBuilder.routes()
+					.route("stub", p -> p.path("/stub/**").uri("http://localhost:" + backend.port()))
+					.build();
+		}
+	}
+}
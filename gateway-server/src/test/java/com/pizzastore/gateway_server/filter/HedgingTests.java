@@ -0,0 +1,226 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.controller.FallbackController;
+import com.pizzastore.gateway_server.loadbalancer.InstanceLatencyTracker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"eureka.client.enabled=false",
+		"gateway.load-balancer.latency-aware=false",
+		"gateway.hedging.min-samples=6",
+		"gateway.hedging.min-delay=50ms",
+		"gateway.hedging.budget-ratio=1.0",
+		"gateway.hedging.routes[0].route=hedge-stub",
+		"gateway.hedging.routes[0].path=/stub/menu/**",
+		"gateway.hedging.routes[1].route=hedge-breaker",
+		"gateway.hedging.routes[1].path=/stub/breaker/**",
+		"gateway.coalescing.routes[0].route=hedge-breaker",
+		"gateway.coalescing.routes[0].path=/stub/breaker/**",
+		"gateway.fallback.stale-routes[0]=hedge-breaker"
+})
+class HedgingTests {
+
+	private static final AtomicBoolean firstInstanceSlow = new AtomicBoolean();
+	private static final AtomicInteger cancelledSlowCalls = new AtomicInteger();
+	private static final AtomicBoolean breakerBackendsFailing = new AtomicBoolean();
+	private static DisposableServer first;
+	private static DisposableServer second;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@Autowired
+	private CountingTracker tracker;
+
+	@BeforeAll
+	static void startBackends() {
+		first = HttpServer.create().port(0)
+				.route(routes -> routes
+						.get("/stub/menu/items", (request, response) -> {
+							Mono<String> body = Mono.just("first");
+							if (firstInstanceSlow.get()) {
+								body = body.delayElement(Duration.ofSeconds(2)).doOnCancel(cancelledSlowCalls::incrementAndGet);
+							}
+							return response.sendString(body);
+						})
+						.get("/stub/breaker/items", (request, response) -> breakerItems(response, "first")))
+				.bindNow();
+		second = HttpServer.create().port(0)
+				.route(routes -> routes
+						.get("/stub/menu/items", (request, response) -> response.sendString(Mono.just("second")))
+						.get("/stub/breaker/items", (request, response) -> breakerItems(response, "second")))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopBackends() {
+		first.disposeNow();
+		second.disposeNow();
+	}
+
+	@DynamicPropertySource
+	static void stubInstances(DynamicPropertyRegistry registry) {
+		registry.add("spring.cloud.discovery.client.simple.instances.HEDGE-STUB[0].uri", () -> "http://localhost:" + first.port());
+		registry.add("spring.cloud.discovery.client.simple.instances.HEDGE-STUB[1].uri", () -> "http://localhost:" + second.port());
+	}
+
+	@Test
+	void slowInstanceIsHedgedToTheOtherOne() throws InterruptedException {
+		// Both instances fast while the route collects its latency samples
+		for (int i = 0; i < 6; i++) {
+			webTestClient.get().uri("/stub/menu/items").exchange().expectStatus().isOk();
+		}
+
+		firstInstanceSlow.set(true);
+		try {
+			for (int i = 0; i < 4; i++) {
+				long start = System.nanoTime();
+				webTestClient.get().uri("/stub/menu/items").exchange()
+						.expectStatus().isOk()
+						.expectBody(String.class).isEqualTo("second");
+				assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+			}
+		} finally {
+			firstInstanceSlow.set(false);
+		}
+
+		// Round robin sent half of them to the slow instance first
+		assertThat(meterRegistry.get("pizzeria.gateway.hedging")
+				.tags("route", "hedge-stub", "outcome", "won").counter().count()).isGreaterThanOrEqualTo(2);
+		// The losing calls were abandoned rather than left running
+		long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+		while (cancelledSlowCalls.get() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(cancelledSlowCalls.get()).isGreaterThanOrEqualTo(2);
+		// The hedges were reported to the load balancer's tracker and none is left outstanding
+		assertThat(tracker.hedgesStarted.get()).isGreaterThanOrEqualTo(2);
+		assertThat(tracker.hedgesReleased.get()).isEqualTo(tracker.hedgesStarted.get());
+	}
+
+	@Test
+	void circuitBreakerSeesTheStatusOfHedgedResponses() {
+		for (int i = 0; i < 6; i++) {
+			webTestClient.get().uri("/stub/breaker/items").exchange().expectStatus().isOk();
+		}
+
+		breakerBackendsFailing.set(true);
+		try {
+			// The 500 reaches the breaker before anything is written, so the last good response is replayed
+			webTestClient.get().uri("/stub/breaker/items").exchange()
+					.expectStatus().isOk()
+					.expectHeader().valueEquals(FallbackController.FALLBACK_HEADER, "stale")
+					.expectHeader().doesNotExist("X-Stub-Failure")
+					.expectBody(String.class).value(body -> assertThat(body).isIn("first", "second"));
+		} finally {
+			breakerBackendsFailing.set(false);
+		}
+
+		assertThat(circuitBreakerRegistry.circuitBreaker("hedge-breaker").getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+	}
+
+	private static Publisher<Void> breakerItems(HttpServerResponse response, String name) {
+		if (breakerBackendsFailing.get()) {
+			return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).header("X-Stub-Failure", name)
+					.sendString(Mono.just("boom"));
+		}
+		return response.sendString(Mono.just(name));
+	}
+
+	@TestConfiguration
+	static class StubRouteConfig {
+
+		@Bean
+		RouteLocator hedgeStubRoute(RouteLocatorBuilder routeLocatorBuilder) {
+			return routeLocatorBuilder.routes()
+					.route("hedge-stub", p -> p.path("/stub/menu/**").uri("lb://HEDGE-STUB"))
+					.route("hedge-breaker", p -> p.path("/stub/breaker/**")
+							.filters(f -> f.circuitBreaker(c -> c.setName("hedge-breaker")
+									.setFallbackUri("forward:/fallback/hedge-breaker")
+									.setStatusCodes(Set.of("500", "502", "503", "504"))))
+							.uri("lb://HEDGE-STUB"))
+					.build();
+		}
+
+		@Bean
+		CountingTracker countingTracker() {
+			return new CountingTracker();
+		}
+	}
+
+	// Counts the calls the hedging filter reports itself, apart from the load balancer filter's own
+	static class CountingTracker extends InstanceLatencyTracker {
+
+		final AtomicInteger hedgesStarted = new AtomicInteger();
+		final AtomicInteger hedgesReleased = new AtomicInteger();
+
+		CountingTracker() {
+			super(Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofSeconds(30));
+		}
+
+		@Override
+		public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+			super.onStartRequest(request, lbResponse);
+			if (isHedge(request)) {
+				hedgesStarted.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+			super.onComplete(completionContext);
+			if (isHedge(completionContext.getLoadBalancerRequest())) {
+				hedgesReleased.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void onCancel(Request<Object> request, Response<ServiceInstance> lbResponse) {
+			super.onCancel(request, lbResponse);
+			if (isHedge(request)) {
+				hedgesReleased.incrementAndGet();
+			}
+		}
+
+		private static boolean isHedge(Request<Object> request) {
+			return request.getContext().getClass() == DefaultRequestContext.class;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.config.GatewayJwtProperties;
+import com.pizzastore.gateway_server.security.GatewayJwtVerifier;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationGlobalFilterTests {
+
+	private final GatewayJwtProperties properties = properties("test_jwt_secret_key_that_is_at_least_32_characters_long");
+	private final JwtAuthenticationGlobalFilter filter = new JwtAuthenticationGlobalFilter(new GatewayJwtVerifier(properties));
+
+	@Test
+	void validTokenForwardsVerifiedIdentity() {
+		ServerHttpRequest forwarded = run(MockServerHttpRequest.get("/pizzeria/orders/api/orders/user/7")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token(properties.getSecret(), 60_000))
+				.header(JwtAuthenticationGlobalFilter.USER_ROLE_HEADER, "ADMIN"));
+
+		assertThat(forwarded).isNotNull();
+		assertThat(forwarded.getHeaders().getFirst(JwtAuthenticationGlobalFilter.USER_ID_HEADER)).isEqualTo("7");
+		assertThat(forwarded.getHeaders().getFirst(JwtAuthenticationGlobalFilter.USER_NAME_HEADER)).isEqualTo("customer1");
+		assertThat(forwarded.getHeaders().getFirst(JwtAuthenticationGlobalFilter.USER_ROLE_HEADER)).isEqualTo("CUSTOMER");
+	}
+
+	@Test
+	void requestWithoutTokenPassesWithoutIdentity() {
+		ServerHttpRequest forwarded = run(MockServerHttpRequest.get("/pizzeria/menu/api/menu/items")
+				.header(JwtAuthenticationGlobalFilter.USER_ID_HEADER, "1"));
+
+		assertThat(forwarded).isNotNull();
+		assertThat(forwarded.getHeaders().containsKey(JwtAuthenticationGlobalFilter.USER_ID_HEADER)).isFalse();
+	}
+
+	@Test
+	void badOrExpiredTokensAreRejectedAtTheEdge() {
+		String forged = token("some_other_secret_that_is_at_least_32_characters_long", 60_000);
+		String expired = token(properties.getSecret(), -60_000);
+
+		for (String token : new String[]{forged, expired, "not-a-jwt"}) {
+			MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/pizzeria/orders/api/orders")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+			AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+
+			filter.filter(exchange, chain(forwarded)).block();
+
+			assertThat(forwarded.get()).isNull();
+			assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+		}
+	}
+
+	private ServerHttpRequest run(MockServerHttpRequest.BaseBuilder<?> request) {
+		AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+		filter.filter(MockServerWebExchange.from(request), chain(forwarded)).block();
+		return forwarded.get();
+	}
+
+	private static GatewayFilterChain chain(AtomicReference<ServerHttpRequest> forwarded) {
+		return exchange -> {
+			forwarded.set(exchange.getRequest());
+			return Mono.empty();
+		};
+	}
+
+	private static String token(String secret, long expiresInMs) {
+		return Jwts.builder()
+				.subject("customer1")
+				.claim("userId", 7)
+				.claim("role", "CUSTOMER")
+				.expiration(new Date(System.currentTimeMillis() + expiresInMs))
+				.signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	private static GatewayJwtProperties properties(String secret) {
+		GatewayJwtProperties properties = new GatewayJwtProperties();
+		properties.setSecret(secret);
+		return properties;
+	}
+}
@@ -0,0 +1,80 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.pizzastore.gateway_server.config.RateLimitProperties;
+import com.pizzastore.gateway_server.ratelimit.InMemoryRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RateLimitGlobalFilterTests {
+
+	private static final GatewayFilterChain PASS = exchange -> Mono.empty();
+
+	private final RateLimitGlobalFilter filter = filter(rule("login", "user-service", "/pizzeria/users/api/users/login", 2));
+
+	@Test
+	void limitsEachUserSeparatelyOnMatchingPath() {
+		assertThat(status("user-service", "/pizzeria/users/api/users/login", "1")).isNull();
+		assertThat(status("user-service", "/pizzeria/users/api/users/login", "1")).isNull();
+		assertThat(status("user-service", "/pizzeria/users/api/users/login", "1")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+		// Another user has its own bucket, and other paths of the route are not limited
+		assertThat(status("user-service", "/pizzeria/users/api/users/login", "2")).isNull();
+		assertThat(status("user-service", "/pizzeria/users/api/users/profile", "1")).isNull();
+		assertThat(status("menu-service", "/pizzeria/menu/api/menu/items", "1")).isNull();
+	}
+
+	@Test
+	void rejectedResponseCarriesRetryAfter() {
+		MockServerWebExchange exchange = null;
+		for (int i = 0; i < 3; i++) {
+			exchange = exchange("user-service", "/pizzeria/users/api/users/login", "3");
+			filter.filter(exchange, PASS).block();
+		}
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(exchange.getResponse().getHeaders().getFirst("Retry-After")).isNotNull();
+		assertThat(exchange.getResponse().getHeaders().getFirst(RateLimitGlobalFilter.REMAINING_HEADER)).isEqualTo("0");
+	}
+
+	private HttpStatus status(String routeId, String path, String userId) {
+		MockServerWebExchange exchange = exchange(routeId, path, userId);
+		filter.filter(exchange, PASS).block();
+		return (HttpStatus) exchange.getResponse().getStatusCode();
+	}
+
+	private static MockServerWebExchange exchange(String routeId, String path, String userId) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(path)
+				.header(JwtAuthenticationGlobalFilter.USER_ID_HEADER, userId));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async().id(routeId).uri("http://localhost")
+				.predicate(e -> true).build());
+		return exchange;
+	}
+
+	private static RateLimitGlobalFilter filter(RateLimitProperties.Rule rule) {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setRules(List.of(rule));
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		return new RateLimitGlobalFilter(properties, new InMemoryRateLimiter(properties, meterRegistry), meterRegistry);
+	}
+
+	private static RateLimitProperties.Rule rule(String name, String route, String path, int capacity) {
+		RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+		rule.setName(name);
+		rule.setRoute(route);
+		rule.setPath(path);
+		rule.setCapacity(capacity);
+		rule.setRefillPerSecond(0.01);
+		return rule;
+	}
+}
@@ -0,0 +1,112 @@
+package com.pizzastore.gateway_server.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"gateway.coalescing.micro-cache-ttl=2s",
+		"gateway.coalescing.routes[0].route=stub",
+		"gateway.coalescing.routes[0].path=/stub/menu/**"
+})
+class RequestCoalescingTests {
+
+	private static final AtomicInteger backendCalls = new AtomicInteger();
+	private static DisposableServer backend;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@BeforeAll
+	static void startBackend() {
+		backend = HttpServer.create().port(0)
+				.route(routes -> routes
+						.get("/stub/menu/{name}", (request, response) -> {
+							backendCalls.incrementAndGet();
+							return response.header("Content-Type", "application/json")
+									.sendString(Mono.just("{\"menu\":\"" + request.param("name") + "\"}")
+											.delayElement(Duration.ofMillis(300)));
+						})
+						.get("/stub/other", (request, response) -> {
+							backendCalls.incrementAndGet();
+							return response.sendString(Mono.just("other").delayElement(Duration.ofMillis(300)));
+						}))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopBackend() {
+		backend.disposeNow();
+	}
+
+	@Test
+	void concurrentIdenticalRequestsShareOneUpstreamCall() {
+		backendCalls.set(0);
+		List<ResponseEntity<String>> responses = concurrentGets("/stub/menu/pizza", 20);
+
+		assertThat(backendCalls.get()).isEqualTo(1);
+		assertThat(responses).allSatisfy(response -> {
+			assertThat(response.getStatusCode().value()).isEqualTo(200);
+			assertThat(response.getBody()).isEqualTo("{\"menu\":\"pizza\"}");
+		});
+		assertThat(responses).extracting(response -> response.getHeaders().getFirst(RequestCoalescingGlobalFilter.CACHE_HEADER))
+				.containsOnly("MISS", "SHARED")
+				.containsOnlyOnce("MISS");
+
+		// Served from the micro-cache within its TTL
+		webTestClient.get().uri("/stub/menu/pizza").exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(RequestCoalescingGlobalFilter.CACHE_HEADER, "HIT");
+		assertThat(backendCalls.get()).isEqualTo(1);
+	}
+
+	@Test
+	void routesNotConfiguredAreNotCoalesced() {
+		backendCalls.set(0);
+		concurrentGets("/stub/other", 5);
+
+		assertThat(backendCalls.get()).isEqualTo(5);
+	}
+
+	private List<ResponseEntity<String>> concurrentGets(String path, int count) {
+		WebClient client = WebClient.create("http://localhost:" + port);
+		return Flux.range(0, count)
+				.flatMap(i -> client.get().uri(path).retrieve().toEntity(String.class), count)
+				.collectList()
+				.block(Duration.ofSeconds(10));
+	}
+
+	@TestConfiguration
+	static class StubRouteConfig {
+
+		@Bean
+		RouteLocator stubRoute(RouteLocatorBuilder routeLocatorBuilder) {
+			return routeLocatorBuilder.routes()
+					.route("stub", p -> p.path("/stub/**").uri("http://localhost:" + backend.port()))
+					.build();
+		}
+	}
+}
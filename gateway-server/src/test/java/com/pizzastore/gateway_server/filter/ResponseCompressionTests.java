@@ -0,0 +1,189 @@
+package com.pizzastore.gateway_server.filter;
+
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"gateway.compression.routes[0].route=compress-stub"
+})
+class ResponseCompressionTests {
+
+	private static final String MENU = "[" + "{\"id\":1,\"name\":\"Margherita\",\"category\":\"PIZZA\"},".repeat(200) + "{}]";
+	private static final AtomicReference<String> upstreamAcceptEncoding = new AtomicReference<>();
+	private static final AtomicReference<HttpHeaders> committedHeaders = new AtomicReference<>();
+	private static DisposableServer backend;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	static void startBackend() {
+		backend = HttpServer.create().port(0)
+				.route(routes -> routes
+						.get("/stub/menu", (request, response) -> {
+							upstreamAcceptEncoding.set(request.requestHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+							return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+									.header(HttpHeaders.ETAG, "\"menu-v1\"")
+									.sendString(Mono.just(MENU));
+						})
+						.get("/stub/small", (request, response) -> response
+								.header(HttpHeaders.CONTENT_TYPE, "application/json")
+								.sendString(Mono.just("{\"status\":\"ok\"}")))
+						// Streamed without a length, so the backend answers with chunked transfer coding
+						.get("/stub/chunked", (request, response) -> response
+								.header(HttpHeaders.CONTENT_TYPE, "application/json")
+								.sendString(Flux.just(MENU.substring(0, 1000), MENU.substring(1000)))))
+				.bindNow();
+	}
+
+	@AfterAll
+	static void stopBackend() {
+		backend.disposeNow();
+	}
+
+	@Test
+	void largeJsonIsGzippedForGzipClients() throws Exception {
+		EntityExchangeResult<byte[]> result = get("/stub/menu", "gzip");
+
+		assertThat(result.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(result.getResponseHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(result.getResponseHeaders().getETag()).isEqualTo("W/\"menu-v1\"");
+		assertThat(result.getResponseBody().length).isLessThan(MENU.length() / 10);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponseBody()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(MENU);
+		}
+		// The backend is asked for an uncompressed body; the gateway does the encoding
+		assertThat(upstreamAcceptEncoding.get()).isNull();
+	}
+
+	@Test
+	void preferredCodingIsCompressedOnceAndReused() {
+		for (int i = 0; i < 3; i++) {
+			EntityExchangeResult<byte[]> result = get("/stub/menu", "gzip, br, zstd");
+			assertThat(result.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("zstd");
+			assertThat(new String(Zstd.decompress(result.getResponseBody(), MENU.length()), StandardCharsets.UTF_8))
+					.isEqualTo(MENU);
+		}
+
+		assertThat(meterRegistry.get(ResponseCompressionGlobalFilter.CPU_TIMER)
+				.tags("route", "compress-stub", "encoding", "zstd").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("pizzeria.gateway.compression.responses")
+				.tags("route", "compress-stub", "encoding", "zstd", "outcome", "reused").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(ResponseCompressionGlobalFilter.BYTES_SAVED)
+				.tags("route", "compress-stub", "encoding", "zstd").counter().count()).isGreaterThan(2.0 * MENU.length() * 0.9);
+	}
+
+	@Test
+	void chunkedResponsesAreSentWithTheirCompressedLength() throws Exception {
+		EntityExchangeResult<byte[]> result = get("/stub/chunked", "gzip");
+
+		assertThat(result.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(result.getResponseHeaders().getContentLength()).isEqualTo(result.getResponseBody().length);
+		// The server drops the conflicting header on the wire, but filters and caches read it before that
+		assertThat(committedHeaders.get().getFirst(HttpHeaders.TRANSFER_ENCODING)).isNull();
+		assertThat(committedHeaders.get().getContentLength()).isEqualTo(result.getResponseBody().length);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponseBody()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(MENU);
+		}
+	}
+
+	@Test
+	void smallOrUnrequestedResponsesAreLeftAlone() {
+		EntityExchangeResult<byte[]> small = get("/stub/small", "gzip");
+		assertThat(small.getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(new String(small.getResponseBody(), StandardCharsets.UTF_8)).isEqualTo("{\"status\":\"ok\"}");
+
+		EntityExchangeResult<byte[]> identity = get("/stub/menu", null);
+		assertThat(identity.getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(identity.getResponseHeaders().getETag()).isEqualTo("\"menu-v1\"");
+		assertThat(new String(identity.getResponseBody(), StandardCharsets.UTF_8)).isEqualTo(MENU);
+	}
+
+	private EntityExchangeResult<byte[]> get(String path, String acceptEncoding) {
+		// The default connector negotiates and decodes compression itself; this one shows the raw response
+		WebTestClient webTestClient = WebTestClient
+				.bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+				.baseUrl("http://localhost:" + port)
+				.build();
+		return webTestClient.get().uri(path)
+				.headers(headers -> {
+					if (acceptEncoding != null) {
+						headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+					}
+				})
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(byte[].class)
+				.returnResult();
+	}
+
+	@TestConfiguration
+	static class StubRouteConfig {
+
+		@Bean
+		RouteLocator compressStubRoute(RouteLocatorBuilder routeLocatorBuilder) {
+			return routeLocatorBuilder.routes()
+					.route("compress-stub", p -> p.path("/stub/menu", "/stub/small", "/stub/chunked").uri("http://localhost:" + backend.port()))
+					.build();
+		}
+
+		@Bean
+		CommittedHeadersRecorder committedHeadersRecorder() {
+			return new CommittedHeadersRecorder();
+		}
+	}
+
+	// Just outside compression: records the response headers as they are committed
+	static class CommittedHeadersRecorder implements GlobalFilter, Ordered {
+
+		@Override
+		public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+			exchange.getResponse().beforeCommit(() -> {
+				// A copy: the server removes headers from the live ones once it writes them
+				HttpHeaders headers = new HttpHeaders();
+				headers.addAll(exchange.getResponse().getHeaders());
+				committedHeaders.set(headers);
+				return Mono.empty();
+			});
+			return chain.filter(exchange);
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE + 24;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.pizzastore.gateway_server.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgeBudgetTests {
+
+	@Test
+	void hedgesAreEarnedByRequests() {
+		HedgeBudget budget = new HedgeBudget(0.25, 10);
+
+		assertThat(budget.tryWithdraw()).isFalse();
+		for (int i = 0; i < 4; i++) {
+			budget.deposit();
+		}
+		assertThat(budget.tryWithdraw()).isTrue();
+		assertThat(budget.tryWithdraw()).isFalse();
+	}
+
+	@Test
+	void savedBudgetIsCapped() {
+		HedgeBudget budget = new HedgeBudget(1.0, 3);
+		for (int i = 0; i < 100; i++) {
+			budget.deposit();
+		}
+
+		int hedges = 0;
+		while (budget.tryWithdraw()) {
+			hedges++;
+		}
+		assertThat(hedges).isEqualTo(3);
+	}
+
+	@Test
+	void ratioAboveOneIsRejected() {
+		assertThatThrownBy(() -> new HedgeBudget(1.5, 10)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,199 @@
+package com.pizzastore.gateway_server.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Discrete-event simulation on a virtual clock: requests arrive every 2 ms and are spread over
+ * four instances, one of which answers in 300 ms instead of ~12 ms.
+ */
+class LatencyAwareLoadBalancerSimulationTests {
+
+	private static final String SERVICE_ID = "ORDER-SERVICE";
+	private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final List<ServiceInstance> instances = List.of(
+			instance("order-1"), instance("order-2"), instance("order-3"), instance("order-degraded"));
+	private final ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from(SERVICE_ID,
+			instances.toArray(ServiceInstance[]::new));
+
+	private long now;
+
+	@Test
+	void degradedInstanceNoLongerDominatesTailLatency() {
+		Result roundRobin = simulate(new RoundRobinLoadBalancer(new SimpleObjectProvider<>(supplier), SERVICE_ID), tracker());
+
+		InstanceLatencyTracker tracker = tracker();
+		Result latencyAware = simulate(new LatencyAwareLoadBalancer(new SimpleObjectProvider<>(supplier), SERVICE_ID, tracker), tracker);
+
+		assertThat(roundRobin.percentile(0.99)).isGreaterThanOrEqualTo(300 * MILLI);
+		assertThat(roundRobin.share("order-degraded")).isGreaterThan(0.2);
+
+		assertThat(latencyAware.percentile(0.99)).isLessThan(20 * MILLI);
+		assertThat(latencyAware.share("order-degraded")).isLessThan(0.01);
+	}
+
+	@Test
+	void prefersInstanceWithFewerOutstandingRequests() {
+		InstanceLatencyTracker tracker = tracker();
+		ServiceInstance busy = instances.get(0);
+		ServiceInstance idle = instances.get(1);
+		for (int i = 0; i < 5; i++) {
+			tracker.onStartRequest(new DefaultRequest<>(new DefaultRequestContext()), response(busy));
+		}
+
+		assertThat(tracker.cost(busy)).isGreaterThan(tracker.cost(idle));
+
+		LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+				new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from(SERVICE_ID, busy, idle)), SERVICE_ID, tracker);
+		for (int i = 0; i < 20; i++) {
+			assertThat(loadBalancer.choose(new DefaultRequest<>()).block().getServer()).isEqualTo(idle);
+		}
+	}
+
+	@Test
+	void cancelledRequestsStopCountingAsOutstanding() {
+		now = 0;
+		InstanceLatencyTracker tracker = tracker();
+		ServiceInstance instance = instances.get(0);
+		double idleCost = tracker.cost(instance);
+
+		// Cancelled: released explicitly; a late completion for the same call must not release it twice
+		Request<Object> cancelled = cast(new DefaultRequest<>(new DefaultRequestContext()));
+		tracker.onStartRequest(cancelled, response(instance));
+		Request<Object> stillRunning = cast(new DefaultRequest<>(new DefaultRequestContext()));
+		tracker.onStartRequest(stillRunning, response(instance));
+		double twoInFlight = tracker.cost(instance);
+		tracker.onCancel(cancelled, response(instance));
+		double oneInFlight = tracker.cost(instance);
+		tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, cancelled, response(instance)));
+
+		assertThat(oneInFlight).isLessThan(twoInFlight);
+		assertThat(tracker.cost(instance)).isEqualTo(oneInFlight);
+
+		// Never reported back at all (a client disconnect): dropped once it is older than the expiry
+		for (int i = 0; i < 10; i++) {
+			tracker.onStartRequest(cast(new DefaultRequest<>(new DefaultRequestContext())), response(instance));
+		}
+		now += Duration.ofSeconds(31).toNanos();
+		assertThat(tracker.cost(instance)).isLessThanOrEqualTo(idleCost);
+	}
+
+	@Test
+	void instancesNoLongerDiscoveredAreForgotten() {
+		now = 0;
+		InstanceLatencyTracker tracker = tracker();
+		ServiceInstance removed = instances.get(3);
+		Request<Object> request = cast(new DefaultRequest<>(new DefaultRequestContext()));
+		tracker.onStartRequest(request, response(removed));
+		now += 300 * MILLI;
+		tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response(removed)));
+		double slowCost = tracker.cost(removed);
+
+		tracker.retainInstances(SERVICE_ID, instances.subList(0, 3));
+
+		assertThat(tracker.cost(removed)).isLessThan(slowCost);
+		assertThat(tracker.cost(removed)).isEqualTo(tracker.cost(instances.get(0)));
+	}
+
+	private InstanceLatencyTracker tracker() {
+		return new InstanceLatencyTracker(Duration.ofSeconds(10), Duration.ofMillis(50), Duration.ofSeconds(1), Duration.ofSeconds(30),
+				() -> now);
+	}
+
+	private Result simulate(ReactorServiceInstanceLoadBalancer loadBalancer, InstanceLatencyTracker tracker) {
+		now = 0;
+		Random random = new Random(42);
+		PriorityQueue<InFlight> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a.completesAt(), b.completesAt()));
+		Result result = new Result();
+
+		for (int i = 0; i < 5000; i++) {
+			long arrival = i * 2 * MILLI;
+			while (!inFlight.isEmpty() && inFlight.peek().completesAt() <= arrival) {
+				complete(inFlight.poll(), tracker);
+			}
+			now = arrival;
+
+			Request<DefaultRequestContext> request = new DefaultRequest<>(new DefaultRequestContext());
+			Response<ServiceInstance> response = loadBalancer.choose(request).block();
+			tracker.onStartRequest(cast(request), response);
+
+			ServiceInstance server = response.getServer();
+			long latency = server.getInstanceId().equals("order-degraded")
+					? 300 * MILLI
+					: (10 + random.nextInt(5)) * MILLI;
+			inFlight.add(new InFlight(arrival + latency, request, response));
+			result.record(server.getInstanceId(), latency);
+		}
+		while (!inFlight.isEmpty()) {
+			complete(inFlight.poll(), tracker);
+		}
+		return result;
+	}
+
+	private void complete(InFlight call, InstanceLatencyTracker tracker) {
+		now = call.completesAt();
+		tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, cast(call.request()), call.response()));
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Request<Object> cast(Request<?> request) {
+		return (Request) request;
+	}
+
+	private static Response<ServiceInstance> response(ServiceInstance instance) {
+		return new DefaultResponse(instance);
+	}
+
+	private static ServiceInstance instance(String id) {
+		return new DefaultServiceInstance(id, SERVICE_ID, id, 8083, false);
+	}
+
+	private record InFlight(long completesAt, Request<?> request, Response<ServiceInstance> response) {
+	}
+
+	private static class Result {
+
+		private final List<Long> latencies = new ArrayList<>();
+		private final Map<String, Integer> calls = new HashMap<>();
+
+		void record(String instanceId, long latency) {
+			latencies.add(latency);
+			calls.merge(instanceId, 1, Integer::sum);
+		}
+
+		long percentile(double percentile) {
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+		}
+
+		double share(String instanceId) {
+			return calls.getOrDefault(instanceId, 0) / (double) latencies.size();
+		}
+	}
+}
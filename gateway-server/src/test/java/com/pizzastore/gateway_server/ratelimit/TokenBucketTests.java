@@ -0,0 +1,40 @@
+package com.pizzastore.gateway_server.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	void allowsBurstThenRefillsAtConfiguredRate() {
+		long now = 0;
+		TokenBucket bucket = new TokenBucket(3, 2, now);
+
+		assertThat(bucket.tryConsume(now)).isEqualTo(2);
+		assertThat(bucket.tryConsume(now)).isEqualTo(1);
+		assertThat(bucket.tryConsume(now)).isEqualTo(0);
+
+		// Empty: the next token arrives after half a second
+		long rejected = bucket.tryConsume(now);
+		assertThat(rejected).isNegative();
+		assertThat(-rejected).isEqualTo(SECOND / 2);
+
+		assertThat(bucket.tryConsume(now + SECOND / 2)).isEqualTo(0);
+		assertThat(bucket.tryConsume(now + SECOND / 2)).isNegative();
+	}
+
+	@Test
+	void idleBucketNeverExceedsCapacity() {
+		TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+		long later = 60 * SECOND;
+		assertThat(bucket.tryConsume(later)).isEqualTo(1);
+		assertThat(bucket.tryConsume(later)).isEqualTo(0);
+		assertThat(bucket.tryConsume(later)).isNegative();
+	}
+}
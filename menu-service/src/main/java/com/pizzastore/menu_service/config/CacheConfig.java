@@ -0,0 +1,21 @@
+package com.pizzastore.menu_service.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caches backing single-item menu reads (list endpoints are served from
+ * {@code MenuCatalogService}'s snapshot). Size and TTL come from
+ * {@code spring.cache.caffeine.spec}; entries can be inspected and cleared
+ * through {@code /actuator/caches}.
+ * <p>
+ * The caching advice wraps the transactional advice, so cache hits skip the
+ * transaction entirely and evictions only happen once the admin change has committed.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String MENU_ITEM = "menuItem";
+}
@@ -1,10 +1,20 @@
 package com.pizzastore.menu_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.menu_service.dto.CatalogCategoryDto;
 import com.pizzastore.menu_service.dto.CategoryDto;
+import com.pizzastore.menu_service.dto.CursorPage;
 import com.pizzastore.menu_service.dto.MenuItemDto;
+import com.pizzastore.menu_service.exception.NotFoundException;
+import com.pizzastore.menu_service.service.MenuCatalogService;
+import com.pizzastore.menu_service.service.MenuCatalogSnapshot;
 import com.pizzastore.menu_service.service.MenuService;
+import com.pizzastore.menu_service.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,9 +22,12 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -30,24 +43,55 @@ public class MenuController {
     @Autowired
     private MenuService menuService;
 
+    @Autowired
+    private MenuCatalogService menuCatalogService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Public APIs (No authentication required)
 
+    // List endpoints are served from the pre-serialized catalog snapshot with a strong ETag;
+    // a matching If-None-Match is answered with 304 Not Modified.
+
+    @GetMapping("/catalog")
+    @Operation(summary = "Get menu catalog", description = "Retrieve all categories with their available menu items")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = CatalogCategoryDto.class))))
+    public ResponseEntity<byte[]> getCatalog() {
+        logger.info("GET /api/menu/catalog - Getting menu catalog");
+
+        return toResponse(menuCatalogService.getSnapshot().getCatalog());
+    }
+
     @GetMapping("/categories")
     @Operation(summary = "Get all categories", description = "Retrieve all menu categories")
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = CategoryDto.class))))
+    public ResponseEntity<byte[]> getAllCategories() {
         logger.info("GET /api/menu/categories - Getting all categories");
 
-        List<CategoryDto> categories = menuService.getAllCategories();
-
-        return ResponseEntity.ok(categories);
+        return toResponse(menuCatalogService.getSnapshot().getCategories());
     }
 
     @GetMapping("/items")
     @Operation(summary = "Get all available menu items", description = "Retrieve all available menu items")
-    public ResponseEntity<List<MenuItemDto>> getAllAvailableItems() {
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = MenuItemDto.class))))
+    public ResponseEntity<byte[]> getAllAvailableItems() {
         logger.info("GET /api/menu/items - Getting all available items");
 
-        List<MenuItemDto> items = menuService.getAllAvailableItems();
+        return toResponse(menuCatalogService.getSnapshot().getAvailableItems());
+    }
+
+    @GetMapping("/items/batch")
+    @Operation(summary = "Get menu items by IDs", description = "Retrieve menu item details for several IDs in one call; unknown IDs are omitted")
+    public ResponseEntity<List<MenuItemDto>> getMenuItemsByIds(
+            @RequestParam @Parameter(description = "Menu item IDs") List<Long> ids) {
+
+        logger.info("GET /api/menu/items/batch - Getting {} menu items by ID", ids.size());
+
+        List<MenuItemDto> items = menuService.getMenuItemsByIds(ids);
 
         return ResponseEntity.ok(items);
     }
@@ -73,14 +117,18 @@ public class MenuController {
 
     @GetMapping("/category/{categoryName}")
     @Operation(summary = "Get items by category", description = "Retrieve available menu items by category name")
-    public ResponseEntity<List<MenuItemDto>> getItemsByCategory(
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = MenuItemDto.class))))
+    public ResponseEntity<byte[]> getItemsByCategory(
             @PathVariable @Parameter(description = "Category name") String categoryName) {
 
         logger.info("GET /api/menu/category/{} - Getting items by category", categoryName);
 
-        List<MenuItemDto> items = menuService.getAvailableItemsByCategory(categoryName);
+        MenuCatalogSnapshot.View items = menuCatalogService.getSnapshot()
+                .getAvailableItemsByCategory(categoryName)
+                .orElseThrow(() -> new NotFoundException("Category not found: " + categoryName));
 
-        return ResponseEntity.ok(items);
+        return toResponse(items);
     }
 
     @GetMapping("/search")
@@ -164,6 +212,43 @@ public class MenuController {
         return ResponseEntity.ok(items);
     }
 
+    @GetMapping("/admin/items/page")
+    @Operation(summary = "Get menu items page (Admin)", description = "Retrieve one keyset page of all menu items; pass nextCursor to continue")
+    public ResponseEntity<CursorPage<MenuItemDto>> getItemsPage(
+            @RequestParam(required = false) @Parameter(description = "Continuation token from the previous page") String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE) @Parameter(description = "Page size (max " + PageCursor.MAX_PAGE_SIZE + ")") int size) {
+
+        logger.info("GET /api/menu/admin/items/page - Getting menu items page of size {}", size);
+
+        CursorPage<MenuItemDto> page = menuService.getMenuItemsPage(cursor, size);
+
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/admin/items/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all menu items (Admin)", description = "Stream all menu items as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportItems() {
+        logger.info("GET /api/menu/admin/items/export - Exporting all menu items");
+
+        // Rows are written page by page as they are read, so memory use stays bounded
+        StreamingResponseBody body = outputStream -> {
+            String cursor = null;
+            do {
+                CursorPage<MenuItemDto> page = menuService.getMenuItemsPage(cursor, PageCursor.MAX_PAGE_SIZE);
+                for (MenuItemDto item : page.getItems()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PatchMapping("/admin/items/{itemId}/availability")
     @Operation(summary = "Toggle item availability (Admin)", description = "Toggle menu item availability")
     public ResponseEntity<String> toggleAvailability(
@@ -186,4 +271,12 @@ public class MenuController {
 
         return ResponseEntity.ok(stats);
     }
+
+    private ResponseEntity<byte[]> toResponse(MenuCatalogSnapshot.View view) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(view.etag())
+                .body(view.body());
+    }
 }
\ No newline at end of file
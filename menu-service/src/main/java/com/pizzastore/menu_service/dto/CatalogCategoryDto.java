@@ -0,0 +1,22 @@
+package com.pizzastore.menu_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter@Getter
+public class CatalogCategoryDto {
+
+    private Long categoryId;
+
+    private String name;
+
+    private String description;
+
+    private List<MenuItemDto> items;
+
+    // Constructors
+    public CatalogCategoryDto() {
+    }
+}
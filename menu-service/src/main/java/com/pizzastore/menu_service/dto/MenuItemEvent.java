@@ -0,0 +1,34 @@
+package com.pizzastore.menu_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Setter@Getter
+public class MenuItemEvent {
+
+    public static final String MENU_ITEM_UPDATED = "MENU_ITEM_UPDATED";
+    public static final String MENU_ITEM_AVAILABILITY_CHANGED = "MENU_ITEM_AVAILABILITY_CHANGED";
+    public static final String MENU_ITEM_DELETED = "MENU_ITEM_DELETED";
+
+    private String eventType;
+    private Long itemId;
+    private String name;
+    private BigDecimal price;
+    private Boolean available;
+    private String categoryName;
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public MenuItemEvent() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public MenuItemEvent(String eventType, Long itemId) {
+        this();
+        this.eventType = eventType;
+        this.itemId = itemId;
+    }
+}
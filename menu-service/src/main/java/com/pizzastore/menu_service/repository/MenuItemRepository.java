@@ -2,23 +2,40 @@ package com.pizzastore.menu_service.repository;
 
 import com.pizzastore.menu_service.entity.Category;
 import com.pizzastore.menu_service.entity.MenuItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
+    // Listing queries fetch the category in the same statement, since every DTO needs its name
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<MenuItem> findAll();
+
     List<MenuItem> findByCategory(Category category);
 
     List<MenuItem> findByCategoryAndAvailableTrue(Category category);
 
+    @EntityGraph(attributePaths = "category")
     List<MenuItem> findByAvailableTrue();
 
-    @Query("SELECT m FROM MenuItem m WHERE m.available = true AND " +
+    @EntityGraph(attributePaths = "category")
+    List<MenuItem> findByItemIdIn(Collection<Long> itemIds);
+
+    // Keyset pagination: next page of items after the given ID
+    @EntityGraph(attributePaths = "category")
+    List<MenuItem> findByItemIdGreaterThanOrderByItemIdAsc(Long itemId, Limit limit);
+
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.category WHERE m.available = true AND " +
             "(LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(m.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<MenuItem> searchAvailableItems(@Param("keyword") String keyword);
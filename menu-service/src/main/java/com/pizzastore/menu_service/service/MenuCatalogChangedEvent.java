@@ -0,0 +1,10 @@
+package com.pizzastore.menu_service.service;
+
+/**
+ * Published by {@link MenuService} whenever an admin mutation changes the menu,
+ * so the catalog snapshot and search index can be refreshed once the change has committed.
+ *
+ * @param itemId the affected menu item, or {@code null} for category-level changes
+ */
+public record MenuCatalogChangedEvent(String reason, Long itemId) {
+}
@@ -0,0 +1,125 @@
+package com.pizzastore.menu_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.menu_service.dto.CatalogCategoryDto;
+import com.pizzastore.menu_service.dto.CategoryDto;
+import com.pizzastore.menu_service.dto.MenuItemDto;
+import com.pizzastore.menu_service.entity.Category;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.CategoryRepository;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current {@link MenuCatalogSnapshot} and rebuilds it after every committed
+ * menu mutation. Readers always see a complete snapshot; a rebuild swaps it atomically.
+ */
+@Service
+public class MenuCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalogService.class);
+
+    private final MenuItemRepository menuItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile MenuCatalogSnapshot snapshot;
+
+    public MenuCatalogService(MenuItemRepository menuItemRepository,
+                              CategoryRepository categoryRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.menuItemRepository = menuItemRepository;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public MenuCatalogSnapshot getSnapshot() {
+        MenuCatalogSnapshot current = snapshot;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuCatalogChanged(MenuCatalogChangedEvent event) {
+        logger.info("Rebuilding menu catalog snapshot: {} {}", event.reason(), event.itemId());
+        rebuild();
+    }
+
+    // Rebuilds are serialized so the last one to run always reflects the latest committed state
+    public synchronized MenuCatalogSnapshot rebuild() {
+        MenuCatalogSnapshot rebuilt = readOnlyTransaction.execute(status -> buildSnapshot());
+        snapshot = rebuilt;
+        logger.info("Menu catalog snapshot rebuilt, etag: {}", rebuilt.getCatalog().etag());
+        return rebuilt;
+    }
+
+    private MenuCatalogSnapshot buildSnapshot() {
+        List<Category> categories = categoryRepository.findAll();
+        List<MenuItem> availableItems = menuItemRepository.findByAvailableTrue();
+
+        List<MenuItemDto> availableItemDtos = availableItems.stream()
+                .map(MenuService::mapToMenuItemDto)
+                .collect(Collectors.toList());
+        Map<Long, List<MenuItemDto>> itemsByCategoryId = availableItemDtos.stream()
+                .collect(Collectors.groupingBy(MenuItemDto::getCategoryId));
+
+        List<CategoryDto> categoryDtos = new ArrayList<>();
+        List<CatalogCategoryDto> catalog = new ArrayList<>();
+        Map<String, MenuCatalogSnapshot.View> itemsByCategoryName = new HashMap<>();
+
+        for (Category category : categories) {
+            List<MenuItemDto> items = itemsByCategoryId.getOrDefault(category.getCategoryId(), List.of());
+
+            categoryDtos.add(MenuService.mapToCategoryDto(category));
+
+            CatalogCategoryDto catalogCategory = new CatalogCategoryDto();
+            catalogCategory.setCategoryId(category.getCategoryId());
+            catalogCategory.setName(category.getName());
+            catalogCategory.setDescription(category.getDescription());
+            catalogCategory.setItems(items);
+            catalog.add(catalogCategory);
+
+            itemsByCategoryName.put(category.getName(), toView(items));
+        }
+
+        return new MenuCatalogSnapshot(toView(catalog), toView(categoryDtos), toView(availableItemDtos),
+                itemsByCategoryName);
+    }
+
+    private MenuCatalogSnapshot.View toView(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new MenuCatalogSnapshot.View(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu catalog snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.pizzastore.menu_service.service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, fully materialized view of the public menu. Every view holds its
+ * pre-serialized JSON body and a strong ETag derived from those bytes.
+ */
+public final class MenuCatalogSnapshot {
+
+    private final View catalog;
+    private final View categories;
+    private final View availableItems;
+    private final Map<String, View> availableItemsByCategory;
+
+    MenuCatalogSnapshot(View catalog, View categories, View availableItems,
+                        Map<String, View> availableItemsByCategory) {
+        this.catalog = catalog;
+        this.categories = categories;
+        this.availableItems = availableItems;
+        this.availableItemsByCategory = Map.copyOf(availableItemsByCategory);
+    }
+
+    public View getCatalog() {
+        return catalog;
+    }
+
+    public View getCategories() {
+        return categories;
+    }
+
+    public View getAvailableItems() {
+        return availableItems;
+    }
+
+    public Optional<View> getAvailableItemsByCategory(String categoryName) {
+        return Optional.ofNullable(availableItemsByCategory.get(categoryName));
+    }
+
+    public record View(byte[] body, String etag) {
+    }
+}
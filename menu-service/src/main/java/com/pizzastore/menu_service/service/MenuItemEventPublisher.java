@@ -0,0 +1,52 @@
+package com.pizzastore.menu_service.service;
+
+import com.pizzastore.menu_service.dto.MenuItemEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends the {@link MenuItemEvent}s published by {@link MenuService} to menu.events once the
+ * change has committed, so consumers (e.g. order-service) never cache a price or availability
+ * that was rolled back, and a re-fetch triggered by the event reads the new row.
+ */
+@Component
+public class MenuItemEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemEventPublisher.class);
+
+    private final StreamBridge streamBridge;
+
+    public MenuItemEventPublisher(StreamBridge streamBridge) {
+        this.streamBridge = streamBridge;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuItemEvent(MenuItemEvent event) {
+        try {
+            Message<MenuItemEvent> message = MessageBuilder
+                    .withPayload(event)
+                    .setHeader("eventType", event.getEventType())
+                    .setHeader("itemId", event.getItemId().toString())
+                    .setHeader("source", "MENU-SERVICE")
+                    .build();
+
+            boolean sent = streamBridge.send("menu-events-out-0", message);
+
+            if (sent) {
+                logger.info("Published menu event: {} for item: {}", event.getEventType(), event.getItemId());
+            } else {
+                logger.warn("Failed to publish menu event: {} for item: {}", event.getEventType(), event.getItemId());
+            }
+
+        } catch (Exception e) {
+            logger.error("Error publishing menu event: {} for item: {} - {}",
+                    event.getEventType(), event.getItemId(), e.getMessage(), e);
+            // The change has already committed; don't fail the admin operation
+        }
+    }
+}
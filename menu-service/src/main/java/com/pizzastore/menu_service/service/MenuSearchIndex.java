@@ -0,0 +1,279 @@
+package com.pizzastore.menu_service.service;
+
+import com.pizzastore.menu_service.dto.MenuItemDto;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the name, description and category of available menu items.
+ * <p>
+ * Every query term must match some indexed term exactly, as a prefix, or within a small edit
+ * distance (first character fixed). Results are ranked by match quality weighted by the field the term was found in.
+ * The index is loaded at startup and updated per item after each committed menu mutation.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 1;
+
+    private static final int EXACT_MATCH = 3;
+    private static final int PREFIX_MATCH = 2;
+    private static final int FUZZY_MATCH = 1;
+
+    private final MenuItemRepository menuItemRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (itemId -> highest field weight the term occurs in)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+
+    public MenuSearchIndex(MenuItemRepository menuItemRepository, PlatformTransactionManager transactionManager) {
+        this.menuItemRepository = menuItemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        List<MenuItemDto> availableItems = readOnlyTransaction.execute(status ->
+                menuItemRepository.findByAvailableTrue().stream()
+                        .map(MenuService::mapToMenuItemDto)
+                        .collect(Collectors.toList()));
+        rebuild(availableItems);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuCatalogChanged(MenuCatalogChangedEvent event) {
+        if (event.itemId() == null) {
+            return;
+        }
+
+        MenuItemDto item = readOnlyTransaction.execute(status ->
+                menuItemRepository.findById(event.itemId())
+                        .filter(MenuItem::getAvailable)
+                        .map(MenuService::mapToMenuItemDto)
+                        .orElse(null));
+
+        if (item != null) {
+            index(item);
+        } else {
+            remove(event.itemId());
+        }
+    }
+
+    public void rebuild(List<MenuItemDto> availableItems) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            items.clear();
+            availableItems.forEach(this::addToIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Menu search index built with {} items", availableItems.size());
+    }
+
+    public void index(MenuItemDto item) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(item.getItemId());
+            addToIndex(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MenuItemDto> search(String keyword) {
+        Set<String> queryTerms = tokenize(keyword);
+
+        lock.readLock().lock();
+        try {
+            if (queryTerms.isEmpty()) {
+                return items.values().stream()
+                        .map(IndexedItem::item)
+                        .sorted(Comparator.comparing(MenuItemDto::getName))
+                        .collect(Collectors.toList());
+            }
+
+            Map<Long, Integer> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Integer> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + termScores.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Integer> finalScores = scores;
+            return finalScores.keySet().stream()
+                    .map(items::get)
+                    .map(IndexedItem::item)
+                    .sorted(Comparator.<MenuItemDto>comparingInt(item -> finalScores.get(item.getItemId())).reversed()
+                            .thenComparing(MenuItemDto::getName))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Score every item matching a single query term; the best match per item wins
+    private Map<Long, Integer> scoreTerm(String queryTerm) {
+        Map<Long, Integer> termScores = new HashMap<>();
+
+        Map<Long, Integer> exact = postings.get(queryTerm);
+        if (exact != null) {
+            addScores(termScores, exact, EXACT_MATCH);
+        }
+
+        postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false)
+                .values()
+                .forEach(matches -> addScores(termScores, matches, PREFIX_MATCH));
+
+        // Typos are only tolerated after the first character, which keeps the scan to one slice of the terms
+        int maxEdits = maxEdits(queryTerm);
+        if (maxEdits > 0) {
+            String firstChar = queryTerm.substring(0, 1);
+            for (Map.Entry<String, Map<Long, Integer>> entry
+                    : postings.subMap(firstChar, true, firstChar + Character.MAX_VALUE, false).entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - queryTerm.length()) <= maxEdits
+                        && !term.startsWith(queryTerm)
+                        && editDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    addScores(termScores, entry.getValue(), FUZZY_MATCH);
+                }
+            }
+        }
+
+        return termScores;
+    }
+
+    private void addScores(Map<Long, Integer> termScores, Map<Long, Integer> matches, int matchWeight) {
+        matches.forEach((itemId, fieldWeight) -> termScores.merge(itemId, matchWeight * fieldWeight, Math::max));
+    }
+
+    private void addToIndex(MenuItemDto item) {
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(item.getCategoryName()).forEach(term -> terms.merge(term, CATEGORY_WEIGHT, Math::max));
+        tokenize(item.getDescription()).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Math::max));
+        tokenize(item.getName()).forEach(term -> terms.merge(term, NAME_WEIGHT, Math::max));
+
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(item.getItemId(), weight));
+        items.put(item.getItemId(), new IndexedItem(item, new HashSet<>(terms.keySet())));
+    }
+
+    private void removeFromIndex(Long itemId) {
+        IndexedItem existing = items.remove(itemId);
+        if (existing == null) {
+            return;
+        }
+
+        for (String term : existing.terms()) {
+            Map<Long, Integer> matches = postings.get(term);
+            if (matches != null) {
+                matches.remove(itemId);
+                if (matches.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static int maxEdits(String term) {
+        if (term.length() < 4) {
+            return 0;
+        }
+        return term.length() < 8 ? 1 : 2;
+    }
+
+    // Optimal string alignment distance, abandoned early once it exceeds maxEdits
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previousPrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return previous[b.length()];
+    }
+
+    private record IndexedItem(MenuItemDto item, Set<String> terms) {
+    }
+}
@@ -1,15 +1,23 @@
 package com.pizzastore.menu_service.service;
 
+import com.pizzastore.menu_service.config.CacheConfig;
 import com.pizzastore.menu_service.dto.CategoryDto;
+import com.pizzastore.menu_service.dto.CursorPage;
 import com.pizzastore.menu_service.dto.MenuItemDto;
+import com.pizzastore.menu_service.dto.MenuItemEvent;
 import com.pizzastore.menu_service.entity.Category;
 import com.pizzastore.menu_service.entity.MenuItem;
 import com.pizzastore.menu_service.exception.NotFoundException;
 import com.pizzastore.menu_service.repository.CategoryRepository;
 import com.pizzastore.menu_service.repository.MenuItemRepository;
+import com.pizzastore.menu_service.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +38,12 @@ public class MenuService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Category Management
     public CategoryDto createCategory(CategoryDto categoryDto) {
         logger.info("Creating category: {}", categoryDto.getName());
@@ -42,13 +56,14 @@ public class MenuService {
         Category savedCategory = categoryRepository.save(category);
 
         logger.info("Category created successfully: {}", savedCategory.getName());
+        eventPublisher.publishEvent(new MenuCatalogChangedEvent("category created: " + savedCategory.getName(), null));
         return mapToCategoryDto(savedCategory);
     }
 
     public List<CategoryDto> getAllCategories() {
         List<Category> categories = categoryRepository.findAll();
         return categories.stream()
-                .map(this::mapToCategoryDto)
+                .map(MenuService::mapToCategoryDto)
                 .collect(Collectors.toList());
     }
 
@@ -70,9 +85,11 @@ public class MenuService {
         MenuItem savedItem = menuItemRepository.save(menuItem);
 
         logger.info("Menu item created successfully: {}", savedItem.getName());
+        eventPublisher.publishEvent(new MenuCatalogChangedEvent("item created", savedItem.getItemId()));
         return mapToMenuItemDto(savedItem);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.MENU_ITEM, key = "#itemId")
     public MenuItemDto updateMenuItem(Long itemId, MenuItemDto menuItemDto) {
         logger.info("Updating menu item with ID: {}", itemId);
 
@@ -94,9 +111,14 @@ public class MenuService {
         MenuItem savedItem = menuItemRepository.save(menuItem);
 
         logger.info("Menu item updated successfully: {}", savedItem.getName());
+        eventPublisher.publishEvent(new MenuCatalogChangedEvent("item updated", itemId));
+
+        publishMenuItemEvent(createMenuItemEvent(MenuItemEvent.MENU_ITEM_UPDATED, savedItem));
+
         return mapToMenuItemDto(savedItem);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.MENU_ITEM, key = "#itemId")
     public void deleteMenuItem(Long itemId) {
         logger.info("Deleting menu item with ID: {}", itemId);
 
@@ -106,8 +128,12 @@ public class MenuService {
 
         menuItemRepository.deleteById(itemId);
         logger.info("Menu item deleted successfully: {}", itemId);
+        eventPublisher.publishEvent(new MenuCatalogChangedEvent("item deleted", itemId));
+
+        publishMenuItemEvent(new MenuItemEvent(MenuItemEvent.MENU_ITEM_DELETED, itemId));
     }
 
+    @Cacheable(cacheNames = CacheConfig.MENU_ITEM, key = "#itemId")
     public MenuItemDto getMenuItemById(Long itemId) {
         MenuItem menuItem = menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Menu item not found with ID: " + itemId));
@@ -115,13 +141,36 @@ public class MenuService {
         return mapToMenuItemDto(menuItem);
     }
 
+    public List<MenuItemDto> getMenuItemsByIds(List<Long> itemIds) {
+        List<MenuItem> items = menuItemRepository.findByItemIdIn(itemIds);
+        return items.stream()
+                .map(MenuService::mapToMenuItemDto)
+                .collect(Collectors.toList());
+    }
+
     public List<MenuItemDto> getAllMenuItems() {
         List<MenuItem> items = menuItemRepository.findAll();
         return items.stream()
-                .map(this::mapToMenuItemDto)
+                .map(MenuService::mapToMenuItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MenuItemDto> getMenuItemsPage(String cursor, int size) {
+        int pageSize = PageCursor.clampPageSize(size);
+        List<MenuItem> items = menuItemRepository.findByItemIdGreaterThanOrderByItemIdAsc(
+                PageCursor.decode(cursor), Limit.of(pageSize + 1));
+
+        boolean hasMore = items.size() > pageSize;
+        List<MenuItem> page = hasMore ? items.subList(0, pageSize) : items;
+        String nextCursor = hasMore ? PageCursor.encode(page.get(page.size() - 1).getItemId()) : null;
+
+        List<MenuItemDto> dtos = page.stream()
+                .map(MenuService::mapToMenuItemDto)
+                .collect(Collectors.toList());
+        return new CursorPage<>(dtos, nextCursor);
+    }
+
     // Public APIs
     public List<MenuItemDto> getAvailableItemsByCategory(String categoryName) {
         Category category = categoryRepository.findByName(categoryName)
@@ -129,25 +178,23 @@ public class MenuService {
 
         List<MenuItem> items = menuItemRepository.findByCategoryAndAvailableTrue(category);
         return items.stream()
-                .map(this::mapToMenuItemDto)
+                .map(MenuService::mapToMenuItemDto)
                 .collect(Collectors.toList());
     }
 
     public List<MenuItemDto> searchAvailableItems(String keyword) {
-        List<MenuItem> items = menuItemRepository.searchAvailableItems(keyword);
-        return items.stream()
-                .map(this::mapToMenuItemDto)
-                .collect(Collectors.toList());
+        return menuSearchIndex.search(keyword);
     }
 
     public List<MenuItemDto> getAllAvailableItems() {
         List<MenuItem> items = menuItemRepository.findByAvailableTrue();
         return items.stream()
-                .map(this::mapToMenuItemDto)
+                .map(MenuService::mapToMenuItemDto)
                 .collect(Collectors.toList());
     }
 
     // Admin functionality
+    @CacheEvict(cacheNames = CacheConfig.MENU_ITEM, key = "#itemId")
     public void toggleItemAvailability(Long itemId, Boolean available) {
         logger.info("Toggling availability for item ID: {} to {}", itemId, available);
 
@@ -158,6 +205,9 @@ public class MenuService {
         menuItemRepository.save(item);
 
         logger.info("Item availability updated: {} - {}", item.getName(), available);
+        eventPublisher.publishEvent(new MenuCatalogChangedEvent("item availability changed", itemId));
+
+        publishMenuItemEvent(createMenuItemEvent(MenuItemEvent.MENU_ITEM_AVAILABILITY_CHANGED, item));
     }
 
     // Statistics
@@ -171,8 +221,22 @@ public class MenuService {
         return stats;
     }
 
+    // Consumers (e.g. order-service) refresh their local copies from these; MenuItemEventPublisher sends them after commit
+    private void publishMenuItemEvent(MenuItemEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
     // Helper methods
-    private CategoryDto mapToCategoryDto(Category category) {
+    private MenuItemEvent createMenuItemEvent(String eventType, MenuItem item) {
+        MenuItemEvent event = new MenuItemEvent(eventType, item.getItemId());
+        event.setName(item.getName());
+        event.setPrice(item.getPrice());
+        event.setAvailable(item.getAvailable());
+        event.setCategoryName(item.getCategory().getName());
+        return event;
+    }
+
+    static CategoryDto mapToCategoryDto(Category category) {
         CategoryDto dto = new CategoryDto();
         dto.setCategoryId(category.getCategoryId());
         dto.setName(category.getName());
@@ -180,7 +244,7 @@ public class MenuService {
         return dto;
     }
 
-    private MenuItemDto mapToMenuItemDto(MenuItem item) {
+    static MenuItemDto mapToMenuItemDto(MenuItem item) {
         MenuItemDto dto = new MenuItemDto();
         dto.setItemId(item.getItemId());
         dto.setName(item.getName());
@@ -0,0 +1,111 @@
+package com.pizzastore.menu_service.benchmark;
+
+import com.pizzastore.menu_service.MenuServiceApplication;
+import com.pizzastore.menu_service.entity.Category;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.CategoryRepository;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import com.pizzastore.menu_service.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory {@link MenuSearchIndex} with the JPQL LIKE query it replaced.
+ * Run with {@code main} from the test classpath; not part of the regular test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuSearchBenchmark {
+
+    private static final String[] ADJECTIVES = {"Classic", "Spicy", "Smoky", "Garlic", "Truffle", "Veggie", "Cheesy", "Rustic"};
+    private static final String[] TOPPINGS = {"Margherita", "Pepperoni", "Mushroom", "Hawaiian", "Supreme", "Calzone", "Bruschetta", "Tiramisu"};
+    private static final String[] DESCRIPTIONS = {
+            "with tomato sauce, mozzarella and basil",
+            "topped with jalapenos and chili oil",
+            "with roasted mushrooms and truffle cream",
+            "with pineapple, ham and smoked cheese"
+    };
+
+    @Param({"10000", "100000"})
+    private int itemCount;
+
+    @Param({"pepperoni", "mush", "peperoni"})
+    private String keyword;
+
+    private ConfigurableApplicationContext context;
+    private MenuItemRepository menuItemRepository;
+    private MenuSearchIndex menuSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MenuServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:menubench",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=never",
+                        "--spring.cloud.config.enabled=false",
+                        "--eureka.client.enabled=false",
+                        "--logging.level.root=WARN");
+
+        menuItemRepository = context.getBean(MenuItemRepository.class);
+        menuSearchIndex = context.getBean(MenuSearchIndex.class);
+
+        Category pizza = context.getBean(CategoryRepository.class).save(new Category("Pizza", "Benchmark pizzas"));
+        List<MenuItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            String name = ADJECTIVES[i % ADJECTIVES.length] + " " + TOPPINGS[(i / ADJECTIVES.length) % TOPPINGS.length] + " " + i;
+            items.add(new MenuItem(name, DESCRIPTIONS[i % DESCRIPTIONS.length], BigDecimal.TEN, pizza));
+        }
+        menuItemRepository.saveAll(items);
+
+        // Rebuild now that the benchmark data is in place
+        menuSearchIndex.onApplicationReady();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int jpqlLikeQuery() {
+        return menuItemRepository.searchAvailableItems(keyword).size();
+    }
+
+    @Benchmark
+    public int invertedIndex() {
+        return menuSearchIndex.search(keyword).size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MenuSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.pizzastore.menu_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.menu_service.entity.Category;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.CategoryRepository;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:menu-paging",
+		"spring.sql.init.mode=never"
+})
+@AutoConfigureMockMvc
+class MenuPagingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@BeforeEach
+	void setUp() {
+		menuItemRepository.deleteAll();
+		categoryRepository.deleteAll();
+		Category category = categoryRepository.save(new Category("Pizza", "Paging test category"));
+		List<MenuItem> items = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			items.add(new MenuItem("Item " + i, "Paging test item", BigDecimal.TEN, category));
+		}
+		menuItemRepository.saveAll(items);
+	}
+
+	@Test
+	void pagesCoverEveryItemAndTheLastHasNoCursor() throws Exception {
+		List<Long> itemIds = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = getPage(cursor, 2);
+			page.get("items").forEach(item -> itemIds.add(item.get("itemId").asLong()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(itemIds).containsExactlyElementsOf(allItemIds());
+	}
+
+	@Test
+	void pageSizeIsClamped() throws Exception {
+		JsonNode smallest = getPage(null, 0);
+		assertThat(smallest.get("items")).hasSize(1);
+		assertThat(smallest.get("nextCursor").isNull()).isFalse();
+
+		JsonNode largest = getPage(null, 100_000);
+		assertThat(largest.get("items")).hasSize(5);
+		assertThat(largest.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		mockMvc.perform(get("/api/menu/admin/items/page").param("cursor", "not-a-cursor!"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/menu/admin/items/page").param("cursor", "YWJj"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportStreamsEveryItemAsNdjson() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/menu/admin/items/export"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String ndjson = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		List<Long> itemIds = new ArrayList<>();
+		for (String line : Arrays.stream(ndjson.split("\n")).filter(line -> !line.isBlank()).toList()) {
+			itemIds.add(objectMapper.readTree(line).get("itemId").asLong());
+		}
+		assertThat(itemIds).containsExactlyElementsOf(allItemIds());
+	}
+
+	private JsonNode getPage(String cursor, int size) throws Exception {
+		MockHttpServletRequestBuilder request = get("/api/menu/admin/items/page").param("size", String.valueOf(size));
+		if (cursor != null) {
+			request.param("cursor", cursor);
+		}
+		String body = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private List<Long> allItemIds() {
+		return menuItemRepository.findAll().stream().map(MenuItem::getItemId).sorted().toList();
+	}
+}
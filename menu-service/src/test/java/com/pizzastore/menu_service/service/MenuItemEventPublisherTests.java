@@ -0,0 +1,80 @@
+package com.pizzastore.menu_service.service;
+
+import com.pizzastore.menu_service.entity.Category;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.CategoryRepository;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:menu-item-events",
+		"spring.sql.init.mode=never"
+})
+class MenuItemEventPublisherTests {
+
+	@Autowired
+	private MenuService menuService;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoBean
+	private StreamBridge streamBridge;
+
+	private MenuItem item;
+
+	@BeforeEach
+	void setUp() {
+		Category category = categoryRepository.save(new Category("Category " + System.nanoTime(), "Event test category"));
+		item = menuItemRepository.save(new MenuItem("Margherita", "Event test item", BigDecimal.TEN, category));
+		when(streamBridge.send(anyString(), any())).thenReturn(true);
+		clearInvocations(streamBridge);
+	}
+
+	@Test
+	void eventsAreSentOnlyAfterCommit() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			menuService.toggleItemAvailability(item.getItemId(), false);
+			verify(streamBridge, never()).send(anyString(), any());
+		});
+
+		verify(streamBridge).send(eq("menu-events-out-0"), argThat((Message<?> message) ->
+				"MENU_ITEM_AVAILABILITY_CHANGED".equals(message.getHeaders().get("eventType"))
+						&& item.getItemId().toString().equals(message.getHeaders().get("itemId"))));
+	}
+
+	@Test
+	void rolledBackChangesSendNothing() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			menuService.toggleItemAvailability(item.getItemId(), false);
+			status.setRollbackOnly();
+		});
+
+		verify(streamBridge, never()).send(anyString(), any());
+	}
+}
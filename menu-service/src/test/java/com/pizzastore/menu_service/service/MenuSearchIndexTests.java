@@ -0,0 +1,106 @@
+package com.pizzastore.menu_service.service;
+
+import com.pizzastore.menu_service.dto.MenuItemDto;
+import com.pizzastore.menu_service.entity.Category;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MenuSearchIndexTests {
+
+	private MenuItemRepository menuItemRepository;
+
+	private MenuSearchIndex searchIndex;
+
+	@BeforeEach
+	void setUp() {
+		menuItemRepository = mock(MenuItemRepository.class);
+		searchIndex = new MenuSearchIndex(menuItemRepository, mock(PlatformTransactionManager.class));
+		searchIndex.rebuild(List.of(
+				item(1L, "Pepperoni Pizza", "Tomato and mozzarella", "Pizza"),
+				item(2L, "Pesto Pasta", "Basil and pine nuts", "Pasta"),
+				item(3L, "Salami Calzone", "Folded and baked", "Pizza"),
+				item(4L, "Garlic Bread", "Toasted with butter", "Sides")));
+	}
+
+	@Test
+	void prefixesMatchIndexedTerms() {
+		assertThat(names(searchIndex.search("pep"))).containsExactly("Pepperoni Pizza");
+		assertThat(names(searchIndex.search("pe"))).containsExactly("Pepperoni Pizza", "Pesto Pasta");
+		assertThat(names(searchIndex.search("garl bre"))).containsExactly("Garlic Bread");
+	}
+
+	@Test
+	void singleTyposMatch() {
+		assertThat(names(searchIndex.search("salomi"))).containsExactly("Salami Calzone");
+		assertThat(names(searchIndex.search("slami"))).containsExactly("Salami Calzone");
+		assertThat(names(searchIndex.search("salmai"))).containsExactly("Salami Calzone");
+		assertThat(searchIndex.search("sxlxmi")).isEmpty();
+	}
+
+	@Test
+	void typosInTheFirstCharacterDoNotMatch() {
+		assertThat(searchIndex.search("xalami")).isEmpty();
+		assertThat(searchIndex.search("aslami")).isEmpty();
+	}
+
+	@Test
+	void nameMatchesRankAboveDescriptionAboveCategory() {
+		searchIndex.rebuild(List.of(
+				item(1L, "Chili Bites", "Hot and crunchy", "Spicy"),
+				item(2L, "Diavola", "Spicy salami", "Pizza"),
+				item(3L, "Spicy Wings", "Chicken wings", "Sides")));
+
+		assertThat(names(searchIndex.search("spicy"))).containsExactly("Spicy Wings", "Diavola", "Chili Bites");
+	}
+
+	@Test
+	void updatesReplaceTheIndexedTerms() {
+		searchIndex.index(item(1L, "Hawaiian Pizza", "Tomato and mozzarella", "Pizza"));
+		assertThat(searchIndex.search("pepperoni")).isEmpty();
+		assertThat(names(searchIndex.search("hawaiian"))).containsExactly("Hawaiian Pizza");
+
+		searchIndex.remove(2L);
+		assertThat(searchIndex.search("pesto")).isEmpty();
+		assertThat(searchIndex.search("basil")).isEmpty();
+	}
+
+	@Test
+	void unavailableItemsDropOut() {
+		Category category = new Category("Sides", "Side dishes");
+		category.setCategoryId(10L);
+		MenuItem garlicBread = new MenuItem("Garlic Bread", "Toasted with butter", BigDecimal.ONE, category);
+		garlicBread.setItemId(4L);
+		garlicBread.setAvailable(false);
+		when(menuItemRepository.findById(4L)).thenReturn(Optional.of(garlicBread));
+
+		searchIndex.onMenuCatalogChanged(new MenuCatalogChangedEvent("availability", 4L));
+
+		assertThat(searchIndex.search("garlic")).isEmpty();
+		assertThat(names(searchIndex.search(""))).doesNotContain("Garlic Bread");
+	}
+
+	private MenuItemDto item(Long itemId, String name, String description, String categoryName) {
+		MenuItemDto item = new MenuItemDto();
+		item.setItemId(itemId);
+		item.setName(name);
+		item.setDescription(description);
+		item.setCategoryName(categoryName);
+		item.setPrice(BigDecimal.TEN);
+		return item;
+	}
+
+	private List<String> names(List<MenuItemDto> items) {
+		return items.stream().map(MenuItemDto::getName).toList();
+	}
+}
@@ -0,0 +1,89 @@
+package com.pizzastore.menu_service.service;
+
+import com.pizzastore.menu_service.entity.Category;
+import com.pizzastore.menu_service.entity.MenuItem;
+import com.pizzastore.menu_service.repository.CategoryRepository;
+import com.pizzastore.menu_service.repository.MenuItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:menu-query-count",
+		"spring.sql.init.mode=never",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class MenuServiceQueryCountTests {
+
+	@Autowired
+	private MenuService menuService;
+
+	@Autowired
+	private MenuItemRepository menuItemRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		menuItemRepository.deleteAll();
+		categoryRepository.deleteAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void listingQueriesDoNotDependOnItemCount() {
+		createItems(3);
+		long allItemsSmall = countStatements(() -> menuService.getAllMenuItems());
+		long availableSmall = countStatements(() -> menuService.getAllAvailableItems());
+		List<Long> smallIds = allItemIds();
+		long byIdsSmall = countStatements(() -> menuService.getMenuItemsByIds(smallIds));
+
+		createItems(30);
+		long allItemsLarge = countStatements(() -> menuService.getAllMenuItems());
+		long availableLarge = countStatements(() -> menuService.getAllAvailableItems());
+		List<Long> largeIds = allItemIds();
+		long byIdsLarge = countStatements(() -> menuService.getMenuItemsByIds(largeIds));
+
+		assertThat(allItemsSmall).isEqualTo(allItemsLarge).isEqualTo(1);
+		assertThat(availableSmall).isEqualTo(availableLarge).isEqualTo(1);
+		assertThat(byIdsSmall).isEqualTo(byIdsLarge).isEqualTo(1);
+	}
+
+	private long countStatements(Supplier<List<?>> query) {
+		statistics.clear();
+		assertThat(query.get()).isNotEmpty();
+		return statistics.getPrepareStatementCount();
+	}
+
+	private List<Long> allItemIds() {
+		return menuItemRepository.findAll().stream().map(MenuItem::getItemId).toList();
+	}
+
+	// Each item gets its own category so a lazy category load would show up as an extra query per item
+	private void createItems(int count) {
+		List<MenuItem> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Category category = categoryRepository.save(
+					new Category("Category " + System.nanoTime(), "Query count test category"));
+			items.add(new MenuItem("Item " + i, "Query count test item", BigDecimal.TEN, category));
+		}
+		menuItemRepository.saveAll(items);
+	}
+}
@@ -1,8 +1,17 @@
 package com.pizzastore.order_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.dto.CursorPage;
 import com.pizzastore.order_service.dto.OrderDto;
+import com.pizzastore.order_service.dto.OrderIntakeDto;
 import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.dto.OrderStatusUpdateRequest;
+import com.pizzastore.order_service.dto.OrderStatusUpdateResult;
+import com.pizzastore.order_service.service.OrderIdempotencyStore;
+import com.pizzastore.order_service.service.OrderIntakePipeline;
+import com.pizzastore.order_service.service.OrderIntakeService;
 import com.pizzastore.order_service.service.OrderService;
+import com.pizzastore.order_service.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,12 +21,19 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -27,21 +43,102 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    private static final int MAX_INTAKE_WAIT_SECONDS = 30;
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderIntakePipeline orderIntakePipeline;
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderIdempotencyStore orderIdempotencyStore;
+
     @PostMapping
-    @Operation(summary = "Create new order", description = "Place a new pizza order")
+    @Operation(summary = "Create new order", description = "Place a new pizza order; retries with the same Idempotency-Key return the original order")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "201", description = "Order created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid order data")
+            @ApiResponse(responseCode = "201", description = "Order created successfully, or replayed for a repeated Idempotency-Key"),
+            @ApiResponse(responseCode = "400", description = "Invalid order data"),
+            @ApiResponse(responseCode = "409", description = "A request with this Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different order")
     })
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderRequestDto orderRequest) {
+    public ResponseEntity<OrderDto> createOrder(
+            @Valid @RequestBody OrderRequestDto orderRequest,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) @Parameter(description = "Client-chosen key that makes retries safe") String idempotencyKey) {
         logger.info("POST /api/orders - Creating order for user: {}", orderRequest.getUserId());
 
-        OrderDto createdOrder = orderService.createOrder(orderRequest);
+        if (idempotencyKey == null) {
+            OrderDto createdOrder = orderService.createOrder(orderRequest);
+            return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        }
+
+        OrderIdempotencyStore.Outcome outcome = orderIdempotencyStore.createOrder(idempotencyKey, orderRequest);
+        if (outcome.replayed()) {
+            logger.info("Replaying order {} for Idempotency-Key", outcome.order().getOrderId());
+        }
 
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(outcome.order());
+    }
+
+    @PostMapping("/intake")
+    @Operation(summary = "Queue new order", description = "Accept an order for asynchronous validation, pricing and persistence; poll the returned reference for the result")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Order request accepted and queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid order data")
+    })
+    public ResponseEntity<OrderIntakeDto> queueOrder(@Valid @RequestBody OrderRequestDto orderRequest) {
+        logger.info("POST /api/orders/intake - Queueing order for user: {}", orderRequest.getUserId());
+
+        OrderIntakeDto intake = orderIntakePipeline.submit(orderRequest);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/intake/" + intake.getReference()))
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(intake);
+    }
+
+    @GetMapping("/intake/{reference}")
+    @Operation(summary = "Get queued order result", description = "Status of a queued order request; with wait, holds the request until it finishes or the wait runs out")
+    public DeferredResult<ResponseEntity<OrderIntakeDto>> getOrderIntake(
+            @PathVariable String reference,
+            @RequestParam(defaultValue = "0") @Parameter(description = "Seconds to wait for a result (max " + MAX_INTAKE_WAIT_SECONDS + ")") int wait) {
+        logger.info("GET /api/orders/intake/{} - Getting order request status", reference);
+
+        Duration waitFor = Duration.ofSeconds(Math.max(0, Math.min(wait, MAX_INTAKE_WAIT_SECONDS)));
+        DeferredResult<ResponseEntity<OrderIntakeDto>> result = new DeferredResult<>(waitFor.toMillis() + 5_000);
+
+        // Unknown references fail here, before anything waits on them
+        OrderIntakeDto intake = orderIntakeService.getIntake(reference);
+        if (waitFor.isZero() || isFinished(intake)) {
+            result.setResult(intakeResponse(intake));
+            return result;
+        }
+
+        CompletableFuture<Void> finished = orderIntakePipeline.awaitResult(reference, waitFor);
+        // Finished here, or timed out (possibly finished on another instance): answer with the current state
+        finished.whenComplete((ignored, error) -> {
+            try {
+                result.setResult(intakeResponse(orderIntakeService.getIntake(reference)));
+            } catch (RuntimeException e) {
+                result.setErrorResult(e);
+            }
+        });
+        // Read again now the waiter is registered, so a result finished in between is not missed
+        if (isFinished(orderIntakeService.getIntake(reference))) {
+            finished.complete(null);
+        }
+        return result;
     }
 
     @GetMapping("/{orderId}")
@@ -55,11 +152,15 @@ public class OrderController {
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get user orders", description = "Retrieve all orders for a specific user")
-    public ResponseEntity<List<OrderDto>> getUserOrders(@PathVariable Long userId) {
+    @Operation(summary = "Get user orders", description = "Retrieve all orders for a specific user, newest first")
+    public ResponseEntity<List<OrderDto>> getUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @Parameter(description = "Only the most recent orders (max " + PageCursor.MAX_PAGE_SIZE + ")") Integer limit) {
         logger.info("GET /api/orders/user/{} - Getting orders for user", userId);
 
-        List<OrderDto> orders = orderService.getUserOrders(userId);
+        List<OrderDto> orders = limit != null
+                ? orderService.getRecentUserOrders(userId, Math.max(1, Math.min(limit, PageCursor.MAX_PAGE_SIZE)))
+                : orderService.getUserOrders(userId);
 
         return ResponseEntity.ok(orders);
     }
@@ -76,19 +177,78 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/admin/all/page")
+    @Operation(summary = "Get orders page (Admin)", description = "Retrieve one keyset page of all orders; pass nextCursor to continue")
+    public ResponseEntity<CursorPage<OrderDto>> getOrdersPage(
+            @RequestParam(required = false) @Parameter(description = "Continuation token from the previous page") String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE) @Parameter(description = "Page size (max " + PageCursor.MAX_PAGE_SIZE + ")") int size) {
+
+        logger.info("GET /api/orders/admin/all/page - Getting orders page of size {}", size);
+
+        CursorPage<OrderDto> page = orderService.getOrdersPage(cursor, size);
+
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/admin/all/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all orders (Admin)", description = "Stream all orders as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportAllOrders() {
+        logger.info("GET /api/orders/admin/all/export - Exporting all orders");
+
+        // Rows are written page by page as they are read, so memory use stays bounded
+        StreamingResponseBody body = outputStream -> {
+            String cursor = null;
+            do {
+                CursorPage<OrderDto> page = orderService.getOrdersPage(cursor, PageCursor.MAX_PAGE_SIZE);
+                for (OrderDto order : page.getItems()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(order));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PatchMapping("/admin/{orderId}/status")
-    @Operation(summary = "Update order status (Admin)", description = "Update the status of an order")
+    @Operation(summary = "Update order status (Admin)", description = "Move an order to its next status; only legal transitions are applied")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Order status updated"),
+            @ApiResponse(responseCode = "404", description = "Order not found"),
+            @ApiResponse(responseCode = "409", description = "Transition not allowed from the current status, or the order changed concurrently")
+    })
     public ResponseEntity<OrderDto> updateOrderStatus(
             @PathVariable Long orderId,
-            @RequestParam @Parameter(description = "New order status") String status) {
+            @RequestParam @Parameter(description = "New order status") String status,
+            @RequestParam(required = false) @Parameter(description = "Status the order is expected to be in") String from) {
 
         logger.info("PATCH /api/orders/admin/{}/status - Updating status to {}", orderId, status);
 
-        OrderDto updatedOrder = orderService.updateOrderStatus(orderId, status);
+        OrderDto updatedOrder = orderService.updateOrderStatus(orderId, from, status);
 
         return ResponseEntity.ok(updatedOrder);
     }
 
+    @PatchMapping("/admin/status")
+    @Operation(summary = "Update many order statuses (Admin)", description = "Apply a list of status transitions in one transaction and report the outcome per order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-order outcomes: UPDATED, CONFLICT, NOT_FOUND or INVALID"),
+            @ApiResponse(responseCode = "400", description = "More than " + OrderService.MAX_BULK_STATUS_UPDATES + " updates")
+    })
+    public ResponseEntity<List<OrderStatusUpdateResult>> updateOrderStatuses(
+            @RequestBody List<OrderStatusUpdateRequest> updates) {
+
+        logger.info("PATCH /api/orders/admin/status - Updating status of {} orders", updates.size());
+
+        List<OrderStatusUpdateResult> results = orderService.updateOrderStatuses(updates);
+
+        return ResponseEntity.ok(results);
+    }
+
     @PostMapping("/admin/{orderId}/notify")
     @Operation(summary = "Send custom notification for order", description = "Send custom notification message for specific order")
     public ResponseEntity<String> sendOrderNotification(
@@ -120,4 +280,15 @@ public class OrderController {
 
         return ResponseEntity.ok(stats);
     }
+
+    private static boolean isFinished(OrderIntakeDto intake) {
+        return "COMPLETED".equals(intake.getStatus()) || "REJECTED".equals(intake.getStatus());
+    }
+
+    private static ResponseEntity<OrderIntakeDto> intakeResponse(OrderIntakeDto intake) {
+        if (isFinished(intake)) {
+            return ResponseEntity.ok(intake);
+        }
+        return ResponseEntity.ok().header(HttpHeaders.RETRY_AFTER, "1").body(intake);
+    }
 }
@@ -0,0 +1,24 @@
+package com.pizzastore.order_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter@Getter
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    // Opaque token for the next page; null when this is the last page
+    private String nextCursor;
+
+    // Constructors
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
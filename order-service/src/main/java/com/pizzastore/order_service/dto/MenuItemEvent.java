@@ -0,0 +1,20 @@
+package com.pizzastore.order_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter@Getter
+public class MenuItemEvent {
+
+    public static final String MENU_ITEM_DELETED = "MENU_ITEM_DELETED";
+
+    private String eventType;
+    private Long itemId;
+    private String name;
+    private Double price;
+    private Boolean available;
+    private String categoryName;
+
+    // Default constructor
+    public MenuItemEvent() {}
+}
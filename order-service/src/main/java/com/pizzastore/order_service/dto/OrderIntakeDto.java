@@ -0,0 +1,25 @@
+package com.pizzastore.order_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Setter@Getter
+public class OrderIntakeDto {
+
+    private String reference;
+    private String status;
+    private Long orderId;
+    // Why the request was rejected (unknown or unavailable menu item, ...)
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // The created order once the request has completed
+    private OrderDto order;
+
+    // Constructors
+    public OrderIntakeDto() {
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.pizzastore.order_service.dto;
+
+import com.pizzastore.order_service.entity.OrderStatus;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// Number of orders and their summed amount for one order status
+@Getter
+public class OrderStatusTotals {
+
+    private final OrderStatus status;
+    private final Long orderCount;
+    private final BigDecimal revenue;
+
+    public OrderStatusTotals(OrderStatus status, Long orderCount, BigDecimal revenue) {
+        this.status = status;
+        this.orderCount = orderCount;
+        this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.pizzastore.order_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// One entry of a bulk status update: move orderId from fromStatus to toStatus
+@Setter@Getter
+public class OrderStatusUpdateRequest {
+
+    private Long orderId;
+    private String fromStatus;
+    private String toStatus;
+
+    // Constructors
+    public OrderStatusUpdateRequest() {
+    }
+
+    public OrderStatusUpdateRequest(Long orderId, String fromStatus, String toStatus) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.pizzastore.order_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter@Getter
+public class OrderStatusUpdateResult {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID = "INVALID";
+
+    private Long orderId;
+    // UPDATED, CONFLICT, NOT_FOUND or INVALID
+    private String outcome;
+    // The order's status after the update, when known
+    private String status;
+    private String message;
+
+    // Constructors
+    public OrderStatusUpdateResult() {
+    }
+
+    public OrderStatusUpdateResult(Long orderId, String outcome, String status, String message) {
+        this.orderId = orderId;
+        this.outcome = outcome;
+        this.status = status;
+        this.message = message;
+    }
+
+}
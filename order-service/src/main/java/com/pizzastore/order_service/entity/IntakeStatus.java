@@ -0,0 +1,5 @@
+package com.pizzastore.order_service.entity;
+
+public enum IntakeStatus {
+    QUEUED, PROCESSING, COMPLETED, REJECTED
+}
@@ -3,6 +3,7 @@ package com.pizzastore.order_service.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,8 +14,10 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
 
+    // Pooled sequence: ids are handed out in memory, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long orderId;
 
     @Column(nullable = false)
@@ -27,6 +30,9 @@ public class Order {
     @Column(nullable = false)
     private OrderStatus status = OrderStatus.PENDING;
 
+    @Version
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private DeliveryMode deliveryMode = DeliveryMode.DELIVERY;
 
@@ -37,6 +43,7 @@ public class Order {
     private LocalDateTime orderDate;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<OrderItem> orderItems;
 
     // Constructors
@@ -0,0 +1,35 @@
+package com.pizzastore.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Idempotency-Key of a created order, written with the order so a retry on any instance finds it
+@Entity
+@Setter@Getter
+@Table(name = "order_idempotency_key")
+public class OrderIdempotencyKey {
+
+    // "<userId>:<Idempotency-Key>"
+    @Id
+    @Column(length = 300)
+    private String idempotencyKey;
+
+    // SHA-256 of the original request, to refuse a key reused for a different order
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OrderIdempotencyKey() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.pizzastore.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// An accepted order request waiting for (or done with) asynchronous validation, pricing and persistence
+@Entity
+@Setter@Getter
+@Table(name = "order_intake", indexes = @Index(name = "idx_order_intake_status", columnList = "status, updated_at"))
+public class OrderIntake {
+
+    @Id
+    @Column(length = 36)
+    private String reference;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // The original OrderRequestDto as JSON
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IntakeStatus status = IntakeStatus.QUEUED;
+
+    // Set by the worker that claimed the request; completion only succeeds for the current claim
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    private Long orderId;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public OrderIntake() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.pizzastore.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// An order event written in the same transaction as the order change and deleted once the broker confirmed it
+@Entity
+@Setter@Getter
+@Table(name = "order_outbox")
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    // Message body as JSON
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OrderOutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+}
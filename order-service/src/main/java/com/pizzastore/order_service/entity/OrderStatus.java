@@ -1,5 +1,16 @@
 package com.pizzastore.order_service.entity;
 
 public enum OrderStatus {
-    PENDING, CONFIRMED, PREPARING, READY, DELIVERED, CANCELLED
+    PENDING, CONFIRMED, PREPARING, READY, DELIVERED, CANCELLED;
+
+    // Legal status changes; DELIVERED and CANCELLED are final
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED -> next == PREPARING || next == CANCELLED;
+            case PREPARING -> next == READY || next == CANCELLED;
+            case READY -> next == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
 }
@@ -0,0 +1,18 @@
+package com.pizzastore.order_service.exception;
+
+import org.springframework.http.HttpStatus;
+
+// An Idempotency-Key that cannot be honoured: reused for a different request, or its first request is still running
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,9 @@
+package com.pizzastore.order_service.exception;
+
+// The menu service could not be reached to validate an order; the order itself may be fine
+public class MenuUnavailableException extends RuntimeException {
+
+    public MenuUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pizzastore.order_service.exception;
+
+// The order is not in a state that allows the requested status change, or moved on concurrently
+public class OrderStatusConflictException extends RuntimeException {
+
+    public OrderStatusConflictException(String message) {
+        super(message);
+    }
+}
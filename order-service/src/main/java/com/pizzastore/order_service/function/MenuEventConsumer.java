@@ -0,0 +1,28 @@
+package com.pizzastore.order_service.function;
+
+import com.pizzastore.order_service.dto.MenuItemEvent;
+import com.pizzastore.order_service.service.MenuItemCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Consumer;
+
+@Configuration
+public class MenuEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuEventConsumer.class);
+
+    @Autowired
+    private MenuItemCache menuItemCache;
+
+    @Bean
+    public Consumer<MenuItemEvent> processMenuEvents() {
+        return event -> {
+            logger.info("Processing menu event: {} for item: {}", event.getEventType(), event.getItemId());
+            menuItemCache.onMenuItemEvent(event);
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package com.pizzastore.order_service.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance outstanding request count and peak EWMA of observed latency, fed by the load
+ * balancer lifecycle callbacks that Feign's blocking load balancer client invokes around each
+ * call. The cost of an instance is its latency estimate scaled by the requests already waiting
+ * on it, so both a slow and an overloaded instance look expensive.
+ * <p>
+ * Each started call is released exactly once: on completion, on {@link #onCancel}, or when it
+ * has been in flight longer than the expiry, so a call that is never reported back cannot keep
+ * an instance looking busy forever.
+ */
+public class InstanceLatencyTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final ConcurrentMap<String, InstanceStats> instances = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long initialLatencyNanos;
+    private final long failurePenaltyNanos;
+    private final long inFlightExpiryNanos;
+    private final LongSupplier nanoClock;
+
+    public InstanceLatencyTracker(Duration decayTime, Duration initialLatency, Duration failurePenalty, Duration inFlightExpiry) {
+        this(decayTime, initialLatency, failurePenalty, inFlightExpiry, System::nanoTime);
+    }
+
+    InstanceLatencyTracker(Duration decayTime, Duration initialLatency, Duration failurePenalty, Duration inFlightExpiry,
+                           LongSupplier nanoClock) {
+        this.decayNanos = decayTime.toNanos();
+        this.initialLatencyNanos = initialLatency.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.inFlightExpiryNanos = inFlightExpiry.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public double cost(ServiceInstance instance) {
+        InstanceStats stats = instances.get(key(instance));
+        long now = nanoClock.getAsLong();
+        return stats != null ? stats.cost(now) : initialLatencyNanos + 1;
+    }
+
+    // Forget instances of the service that discovery no longer returns
+    public void retainInstances(String serviceId, Collection<ServiceInstance> current) {
+        Set<String> keys = current.stream().map(InstanceLatencyTracker::key).collect(Collectors.toSet());
+        instances.entrySet().removeIf(entry ->
+                entry.getValue().serviceId.equalsIgnoreCase(serviceId) && !keys.contains(entry.getKey()));
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer() && request.getContext() instanceof TimedRequestContext context) {
+            long now = nanoClock.getAsLong();
+            context.setRequestStartTime(now);
+            stats(lbResponse.getServer()).begin(context, now);
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()
+                || !(completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context)
+                || context.getRequestStartTime() == 0) {
+            return;
+        }
+        InstanceStats stats = instances.get(key(lbResponse.getServer()));
+        if (stats == null) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long latency = now - context.getRequestStartTime();
+        if (isFailure(completionContext)) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        stats.end(context, latency, now);
+    }
+
+    // Abandoned call: no longer outstanding, and its latency is unknown so no sample is taken
+    public void onCancel(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse != null && lbResponse.hasServer() && request.getContext() instanceof TimedRequestContext context) {
+            InstanceStats stats = instances.get(key(lbResponse.getServer()));
+            if (stats != null) {
+                stats.release(context);
+            }
+        }
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return instances.computeIfAbsent(key(instance),
+                k -> new InstanceStats(instance.getServiceId(), initialLatencyNanos, nanoClock.getAsLong()));
+    }
+
+    // Instance ids are stable per registration; host:port covers suppliers that do not set one
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private final class InstanceStats {
+
+        private final String serviceId;
+        // Calls in flight by request context (identity) -> start time; removal is the one release
+        private final Map<Object, Long> inFlight = new IdentityHashMap<>();
+        private double ewmaNanos;
+        private long lastUpdate;
+
+        InstanceStats(String serviceId, long initialLatencyNanos, long now) {
+            this.serviceId = serviceId != null ? serviceId : "";
+            this.ewmaNanos = initialLatencyNanos;
+            this.lastUpdate = now;
+        }
+
+        synchronized void begin(Object context, long now) {
+            inFlight.put(context, now);
+        }
+
+        // Peak EWMA: a slower sample is taken as-is, faster ones are blended in by elapsed time.
+        // Calls already released (cancelled or expired) are not counted twice.
+        synchronized void end(Object context, long latencyNanos, long now) {
+            if (inFlight.remove(context) == null) {
+                return;
+            }
+            double weight = weight(now);
+            ewmaNanos = latencyNanos > ewmaNanos
+                    ? latencyNanos
+                    : ewmaNanos * weight + latencyNanos * (1 - weight);
+            lastUpdate = now;
+        }
+
+        synchronized void release(Object context) {
+            inFlight.remove(context);
+        }
+
+        synchronized double cost(long now) {
+            inFlight.values().removeIf(start -> now - start > inFlightExpiryNanos);
+            return (decayed(now) + 1) * (inFlight.size() + 1);
+        }
+
+        // Without samples the estimate drifts toward zero, so an idle slow instance is eventually retried
+        private double decayed(long now) {
+            return ewmaNanos * weight(now);
+        }
+
+        private double weight(long now) {
+            return Math.exp(-Math.max(now - lastUpdate, 0) / decayNanos);
+        }
+    }
+}
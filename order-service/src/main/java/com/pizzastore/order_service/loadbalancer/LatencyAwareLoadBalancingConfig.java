@@ -0,0 +1,25 @@
+package com.pizzastore.order_service.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Shared tracker lives in the application context so every per-service load balancer context sees the same stats
+@Configuration
+@ConditionalOnProperty(prefix = "order.load-balancer", name = "latency-aware", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancingConfig {
+
+    @Bean
+    public InstanceLatencyTracker instanceLatencyTracker(
+            @Value("${order.load-balancer.decay-time:10s}") Duration decayTime,
+            @Value("${order.load-balancer.initial-latency:50ms}") Duration initialLatency,
+            @Value("${order.load-balancer.failure-penalty:1s}") Duration failurePenalty,
+            @Value("${order.load-balancer.in-flight-expiry:30s}") Duration inFlightExpiry) {
+        return new InstanceLatencyTracker(decayTime, initialLatency, failurePenalty, inFlightExpiry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.pizzastore.order_service.repository;
+
+import com.pizzastore.order_service.entity.IntakeStatus;
+import com.pizzastore.order_service.entity.OrderIntake;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, String> {
+
+    // Oldest requests in the given status not touched since the cutoff
+    List<OrderIntake> findByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(IntakeStatus status, LocalDateTime cutoff, Limit limit);
+
+    Long countByStatus(IntakeStatus status);
+
+    // Conditional claim: only one worker moves a queued request to PROCESSING
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = com.pizzastore.order_service.entity.IntakeStatus.PROCESSING, " +
+            "i.claimToken = :claimToken, i.updatedAt = :now " +
+            "WHERE i.reference = :reference AND i.status = com.pizzastore.order_service.entity.IntakeStatus.QUEUED")
+    int claim(@Param("reference") String reference, @Param("claimToken") String claimToken, @Param("now") LocalDateTime now);
+
+    // Finish a claimed request; zero rows means the claim was lost to a sweeper and the work must roll back
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = :status, i.orderId = :orderId, i.error = :error, i.updatedAt = :now " +
+            "WHERE i.reference = :reference AND i.claimToken = :claimToken " +
+            "AND i.status = com.pizzastore.order_service.entity.IntakeStatus.PROCESSING")
+    int finish(@Param("reference") String reference, @Param("claimToken") String claimToken,
+               @Param("status") IntakeStatus status, @Param("orderId") Long orderId,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // Give a claimed request back to the queue, e.g. when the menu service was unreachable
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = com.pizzastore.order_service.entity.IntakeStatus.QUEUED, " +
+            "i.claimToken = null, i.updatedAt = :now " +
+            "WHERE i.reference = :reference AND i.claimToken = :claimToken " +
+            "AND i.status = com.pizzastore.order_service.entity.IntakeStatus.PROCESSING")
+    int release(@Param("reference") String reference, @Param("claimToken") String claimToken, @Param("now") LocalDateTime now);
+
+    // Hand requests whose worker died mid-processing back to the queue
+    @Modifying
+    @Query("UPDATE OrderIntake i SET i.status = com.pizzastore.order_service.entity.IntakeStatus.QUEUED, " +
+            "i.claimToken = null, i.updatedAt = :now " +
+            "WHERE i.status = com.pizzastore.order_service.entity.IntakeStatus.PROCESSING AND i.updatedAt < :cutoff")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+}
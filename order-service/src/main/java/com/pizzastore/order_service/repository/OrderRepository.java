@@ -1,8 +1,13 @@
 package com.pizzastore.order_service.repository;
 
+import com.pizzastore.order_service.dto.OrderStatusTotals;
 import com.pizzastore.order_service.entity.Order;
 import com.pizzastore.order_service.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,9 +19,27 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
 
+    List<Order> findByUserIdOrderByOrderDateDesc(Long userId, Limit limit);
+
     List<Order> findByStatus(OrderStatus status);
 
     Long countByStatus(OrderStatus status);
 
     Long countByUserId(Long userId);
+
+    // Order count and revenue per status in a single scan
+    @Query("SELECT new com.pizzastore.order_service.dto.OrderStatusTotals(o.status, COUNT(o), SUM(o.totalAmount)) " +
+            "FROM Order o GROUP BY o.status")
+    List<OrderStatusTotals> getStatusTotals();
+
+    // Conditional status change in one statement; updates nothing if the order is no longer in the expected status
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :toStatus, o.version = o.version + 1 " +
+            "WHERE o.orderId = :orderId AND o.status = :fromStatus")
+    int updateStatus(@Param("orderId") Long orderId,
+                     @Param("fromStatus") OrderStatus fromStatus,
+                     @Param("toStatus") OrderStatus toStatus);
+
+    // Keyset pagination: next page of orders after the given ID
+    List<Order> findByOrderIdGreaterThanOrderByOrderIdAsc(Long orderId, Limit limit);
 }
@@ -0,0 +1,108 @@
+package com.pizzastore.order_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzastore.order_service.dto.MenuItemEvent;
+import com.pizzastore.order_service.dto.MenuItemResponse;
+import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Local, size-bounded snapshot of menu items used to validate and price orders.
+ * Entries are refreshed or evicted by menu change events; the TTL is only a safety net
+ * for events that never arrive. Events win over menu service responses that were already
+ * in flight when the event arrived: each event leaves a short-lived change stamp, and a
+ * fetched item is only cached if its item has not changed since the fetch started.
+ */
+@Component
+public class MenuItemCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuItemCache.class);
+
+    private final MenuFeignClient menuFeignClient;
+    private final Cache<Long, MenuItemResponse> cache;
+    // itemId -> stamp of the last event for it; kept longer than any menu service call can take
+    private final Cache<Long, Long> changeStamps;
+    private final AtomicLong clock = new AtomicLong();
+
+    public MenuItemCache(MenuFeignClient menuFeignClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${menu.cache.max-size:1000}") long maxSize,
+                         @Value("${menu.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                         @Value("${menu.cache.change-stamp-ttl:1m}") Duration changeStampTtl) {
+        this.menuFeignClient = menuFeignClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.changeStamps = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(changeStampTtl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "menuItems");
+    }
+
+    // Get menu items by ID, fetching all missing entries from the menu service in one call
+    public Map<Long, MenuItemResponse> getMenuItems(Collection<Long> itemIds) {
+        Map<Long, MenuItemResponse> menuItems = new HashMap<>(cache.getAllPresent(itemIds));
+
+        List<Long> missingIds = itemIds.stream()
+                .filter(itemId -> !menuItems.containsKey(itemId))
+                .distinct()
+                .collect(Collectors.toList());
+
+        if (!missingIds.isEmpty()) {
+            long fetchStarted = clock.incrementAndGet();
+            for (MenuItemResponse fetched : menuFeignClient.getMenuItems(missingIds)) {
+                // Atomic per item, so an event either marked the item before this check or is applied after the write
+                MenuItemResponse current = cache.asMap().compute(fetched.getItemId(), (itemId, cached) ->
+                        cached != null || changedSince(itemId, fetchStarted) ? cached : fetched);
+                menuItems.put(fetched.getItemId(), current != null ? current : fetched);
+            }
+        }
+
+        return menuItems;
+    }
+
+    // Apply a menu change event to the local snapshot
+    public void onMenuItemEvent(MenuItemEvent event) {
+        if (event.getItemId() == null) {
+            return;
+        }
+        changeStamps.put(event.getItemId(), clock.incrementAndGet());
+
+        if (MenuItemEvent.MENU_ITEM_DELETED.equals(event.getEventType()) || event.getPrice() == null) {
+            cache.invalidate(event.getItemId());
+            logger.info("Evicted menu item {} from cache ({})", event.getItemId(), event.getEventType());
+            return;
+        }
+
+        MenuItemResponse menuItem = new MenuItemResponse();
+        menuItem.setItemId(event.getItemId());
+        menuItem.setName(event.getName());
+        menuItem.setPrice(event.getPrice());
+        menuItem.setAvailable(event.getAvailable());
+        menuItem.setCategoryName(event.getCategoryName());
+        cache.put(menuItem.getItemId(), menuItem);
+        logger.info("Refreshed menu item {} in cache ({})", event.getItemId(), event.getEventType());
+    }
+
+    private boolean changedSince(Long itemId, long stamp) {
+        Long changed = changeStamps.getIfPresent(itemId);
+        return changed != null && changed > stamp;
+    }
+}
@@ -0,0 +1,206 @@
+package com.pizzastore.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pizzastore.order_service.dto.OrderDto;
+import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.entity.OrderIdempotencyKey;
+import com.pizzastore.order_service.exception.IdempotencyKeyException;
+import com.pizzastore.order_service.repository.OrderIdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for order creation. Keys are scoped to the ordering user and kept in a
+ * bounded, expiring in-memory map of futures: the first request for a key creates the order,
+ * concurrent duplicates wait on its future, and later retries get the original {@link OrderDto}
+ * back. With {@code order.idempotency.persistent=true} the key is also written to
+ * order_idempotency_key in the order's transaction, which makes retries on other instances or
+ * after a restart replay too.
+ */
+@Component
+public class OrderIdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyStore.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final OrderIdempotencyKeyRepository keyRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, CompletableFuture<Entry>> entries;
+    private final boolean persistent;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    public OrderIdempotencyStore(OrderIdempotencyKeyRepository keyRepository,
+                                 OrderService orderService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${order.idempotency.max-keys:10000}") long maxKeys,
+                                 @Value("${order.idempotency.ttl:24h}") Duration ttl,
+                                 @Value("${order.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                                 @Value("${order.idempotency.persistent:false}") boolean persistent) {
+        this.keyRepository = keyRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.persistent = persistent;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "orderIdempotencyKeys");
+    }
+
+    /**
+     * Creates the order once per key.
+     *
+     * @return the order and whether it was replayed from an earlier request
+     */
+    public Outcome createOrder(String idempotencyKey, OrderRequestDto orderRequest) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = orderRequest.getUserId() + ":" + idempotencyKey;
+        // Before createOrder fills in names and prices on the request
+        String requestHash = requestHash(orderRequest);
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = entries.asMap().putIfAbsent(scopedKey, mine);
+        if (existing != null) {
+            return replay(await(existing), requestHash);
+        }
+
+        try {
+            Entry recorded = persistent ? findRecorded(scopedKey) : null;
+            if (recorded != null) {
+                mine.complete(recorded);
+                return replay(recorded, requestHash);
+            }
+
+            Entry created = persistent
+                    ? createAndRecord(scopedKey, requestHash, () -> orderService.createOrder(orderRequest))
+                    : new Entry(requestHash, orderService.createOrder(orderRequest));
+            mine.complete(created);
+            return created.requestHash().equals(requestHash) ? new Outcome(created.order(), false) : replay(created, requestHash);
+        } catch (RuntimeException e) {
+            // Failed attempts are not remembered; waiters see the same error and a later retry runs again
+            entries.asMap().remove(scopedKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval:1h}", initialDelayString = "${order.idempotency.cleanup-interval:1h}")
+    public void deleteExpiredKeys() {
+        if (!persistent) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                keyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        logger.debug("Deleted {} expired idempotency keys", deleted);
+    }
+
+    // Drop the in-memory entries, as after a restart
+    void clearLocal() {
+        entries.invalidateAll();
+    }
+
+    private Entry createAndRecord(String scopedKey, String requestHash, Supplier<OrderDto> create) {
+        try {
+            return transactionTemplate.execute(status -> {
+                OrderDto order = create.get();
+                OrderIdempotencyKey key = new OrderIdempotencyKey();
+                key.setIdempotencyKey(scopedKey);
+                key.setRequestHash(requestHash);
+                key.setOrderId(order.getOrderId());
+                keyRepository.saveAndFlush(key);
+                return new Entry(requestHash, order);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance recorded the key first; this attempt's order has been rolled back
+            Entry recorded = findRecorded(scopedKey);
+            if (recorded == null) {
+                throw e;
+            }
+            return recorded;
+        }
+    }
+
+    private Entry findRecorded(String scopedKey) {
+        return keyRepository.findById(scopedKey)
+                .map(key -> new Entry(key.getRequestHash(), orderService.getOrderById(key.getOrderId())))
+                .orElse(null);
+    }
+
+    private Entry await(CompletableFuture<Entry> first) {
+        try {
+            return first.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private static Outcome replay(Entry entry, String requestHash) {
+        if (!entry.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different order");
+        }
+        return new Outcome(entry.order(), true);
+    }
+
+    private String requestHash(OrderRequestDto orderRequest) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(orderRequest).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Unable to fingerprint order request: " + e.getMessage());
+        }
+    }
+
+    private record Entry(String requestHash, OrderDto order) {
+    }
+
+    public record Outcome(OrderDto order, boolean replayed) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.dto.OrderIntakeDto;
+import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.exception.MenuUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake: requests are stored durably, handed to a bounded queue and worked
+ * off by a fixed number of virtual-thread workers, so bursts wait in the queue instead of
+ * holding request threads. The queue is only a hand-off; anything that does not fit, was
+ * released after a menu outage, or belonged to a crashed worker is picked up again from the
+ * database by the periodic sweep. Workers run as a {@link SmartLifecycle}, so they stop before
+ * the persistence beans are destroyed.
+ */
+@Component
+public class OrderIntakePipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakePipeline.class);
+
+    private final OrderIntakeService intakeService;
+    private final MeterRegistry meterRegistry;
+    private final int workerCount;
+    private final Duration sweepInterval;
+    private final Duration processingTimeout;
+    private final BlockingQueue<String> handoff;
+    private ExecutorService workers;
+    // Local waiters for long-polling clients, completed when this instance finishes the request;
+    // one future per waiter, so each can time out on its own
+    private final ConcurrentMap<String, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public OrderIntakePipeline(OrderIntakeService intakeService,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.intake.workers:8}") int workerCount,
+                               @Value("${order.intake.queue-capacity:1000}") int queueCapacity,
+                               @Value("${order.intake.sweep-interval:5s}") Duration sweepInterval,
+                               @Value("${order.intake.processing-timeout:2m}") Duration processingTimeout) {
+        this.intakeService = intakeService;
+        this.meterRegistry = meterRegistry;
+        this.workerCount = workerCount;
+        this.sweepInterval = sweepInterval;
+        this.processingTimeout = processingTimeout;
+        this.handoff = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gaugeCollectionSize("order.intake.queue", Tags.empty(), handoff);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-intake-", 0).factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::work);
+        }
+        logger.info("Started {} order intake workers", workerCount);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.shutdown();
+        try {
+            // Anything unfinished is still QUEUED or PROCESSING in the database and is recovered by a sweep
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public OrderIntakeDto submit(OrderRequestDto orderRequest) {
+        OrderIntakeDto intake = intakeService.queue(orderRequest);
+        if (!handoff.offer(intake.getReference())) {
+            meterRegistry.counter("order.intake.overflow").increment();
+            logger.warn("Order intake queue full; request {} waits for the next sweep", intake.getReference());
+        }
+        return intake;
+    }
+
+    // Completes when this instance finishes the request, or exceptionally after the timeout
+    public CompletableFuture<Void> awaitResult(String reference, Duration timeout) {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.compute(reference, (key, pending) -> {
+            Set<CompletableFuture<Void>> registered = pending != null ? pending : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        waiter.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> waiters.computeIfPresent(reference, (key, pending) -> {
+                    pending.remove(waiter);
+                    return pending.isEmpty() ? null : pending;
+                }));
+        return waiter;
+    }
+
+    int waiterCount(String reference) {
+        Set<CompletableFuture<Void>> pending = waiters.get(reference);
+        return pending != null ? pending.size() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${order.intake.sweep-interval:5s}", initialDelayString = "${order.intake.sweep-interval:5s}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = intakeService.requeueStale(now.minus(processingTimeout));
+        if (requeued > 0) {
+            logger.warn("Re-queued {} order requests abandoned mid-processing", requeued);
+        }
+
+        int capacity = handoff.remainingCapacity();
+        if (capacity > 0) {
+            for (String reference : intakeService.findWaiting(now.minus(sweepInterval), capacity)) {
+                handoff.offer(reference);
+            }
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                // Polls rather than blocks, so idle workers notice a stop without being interrupted
+                String reference = handoff.poll(1, TimeUnit.SECONDS);
+                if (reference != null) {
+                    process(reference);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order intake worker error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    void process(String reference) {
+        // Duplicate hand-offs (sweep and submit racing) lose the claim and are dropped here
+        String claimToken = intakeService.claim(reference);
+        if (claimToken == null) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            Long orderId = intakeService.complete(reference, claimToken);
+            outcome = "completed";
+            logger.info("Order request {} completed as order {}", reference, orderId);
+        } catch (MenuUnavailableException e) {
+            // Not the order's fault: leave it queued for a later sweep
+            intakeService.release(reference, claimToken);
+            outcome = "released";
+            logger.warn("Order request {} released: {}", reference, e.getMessage());
+        } catch (OrderIntakeService.ClaimLostException e) {
+            outcome = "claim_lost";
+            logger.warn("Order request {} dropped: {}", reference, e.getMessage());
+        } catch (RuntimeException e) {
+            intakeService.reject(reference, claimToken, e.getMessage());
+            outcome = "rejected";
+            logger.info("Order request {} rejected: {}", reference, e.getMessage());
+        }
+        sample.stop(meterRegistry.timer("order.intake.processing", "outcome", outcome));
+
+        if (!"released".equals(outcome)) {
+            Set<CompletableFuture<Void>> pending = waiters.remove(reference);
+            if (pending != null) {
+                pending.forEach(waiter -> waiter.complete(null));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.pizzastore.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.dto.OrderDto;
+import com.pizzastore.order_service.dto.OrderIntakeDto;
+import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.entity.DeliveryMode;
+import com.pizzastore.order_service.entity.IntakeStatus;
+import com.pizzastore.order_service.entity.OrderIntake;
+import com.pizzastore.order_service.repository.OrderIntakeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Durable state of asynchronously accepted orders. A request is stored as QUEUED before the
+ * client is answered, claimed by one worker, and finished as COMPLETED together with the order
+ * it created (same transaction) or as REJECTED.
+ */
+@Service
+@Transactional
+public class OrderIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    @Autowired
+    private OrderIntakeRepository orderIntakeRepository;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Cheap checks only; menu validation and pricing happen in the worker
+    public OrderIntakeDto queue(OrderRequestDto orderRequest) {
+        try {
+            DeliveryMode.valueOf(orderRequest.getDeliveryMode().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Invalid delivery mode: " + orderRequest.getDeliveryMode());
+        }
+
+        OrderIntake intake = new OrderIntake();
+        intake.setReference(UUID.randomUUID().toString());
+        intake.setUserId(orderRequest.getUserId());
+        try {
+            intake.setPayload(objectMapper.writeValueAsString(orderRequest));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to queue order request: " + e.getOriginalMessage());
+        }
+        OrderIntake saved = orderIntakeRepository.save(intake);
+
+        logger.info("Queued order request {} for user ID: {}", saved.getReference(), saved.getUserId());
+        return convertToIntakeDto(saved, null);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderIntakeDto getIntake(String reference) {
+        OrderIntake intake = orderIntakeRepository.findById(reference)
+                .orElseThrow(() -> new RuntimeException("Order request not found with reference: " + reference));
+
+        OrderDto order = intake.getStatus() == IntakeStatus.COMPLETED ? orderService.getOrderById(intake.getOrderId()) : null;
+        return convertToIntakeDto(intake, order);
+    }
+
+    // Returns the claim token, or null if another worker got there first or the request is finished
+    public String claim(String reference) {
+        String claimToken = UUID.randomUUID().toString();
+        return orderIntakeRepository.claim(reference, claimToken, LocalDateTime.now()) == 1 ? claimToken : null;
+    }
+
+    // Validate, price and persist the order; rolls back entirely if the claim was lost meanwhile
+    public Long complete(String reference, String claimToken) {
+        OrderIntake intake = orderIntakeRepository.findById(reference)
+                .orElseThrow(() -> new RuntimeException("Order request not found with reference: " + reference));
+
+        OrderRequestDto orderRequest;
+        try {
+            orderRequest = objectMapper.readValue(intake.getPayload(), OrderRequestDto.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unreadable order request " + reference + ": " + e.getOriginalMessage());
+        }
+
+        OrderDto order = orderService.createOrder(orderRequest);
+        if (orderIntakeRepository.finish(reference, claimToken, IntakeStatus.COMPLETED, order.getOrderId(), null,
+                LocalDateTime.now()) != 1) {
+            throw new ClaimLostException("Lost claim on order request " + reference);
+        }
+        return order.getOrderId();
+    }
+
+    public void reject(String reference, String claimToken, String error) {
+        String message = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        orderIntakeRepository.finish(reference, claimToken, IntakeStatus.REJECTED, null, message, LocalDateTime.now());
+    }
+
+    public void release(String reference, String claimToken) {
+        orderIntakeRepository.release(reference, claimToken, LocalDateTime.now());
+    }
+
+    public int requeueStale(LocalDateTime cutoff) {
+        return orderIntakeRepository.requeueStale(cutoff, LocalDateTime.now());
+    }
+
+    // Queued requests not handed to a worker since the cutoff (overflow, restarts, released claims)
+    @Transactional(readOnly = true)
+    public List<String> findWaiting(LocalDateTime cutoff, int limit) {
+        return orderIntakeRepository.findByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(IntakeStatus.QUEUED, cutoff, Limit.of(limit))
+                .stream()
+                .map(OrderIntake::getReference)
+                .toList();
+    }
+
+    private OrderIntakeDto convertToIntakeDto(OrderIntake intake, OrderDto order) {
+        OrderIntakeDto dto = new OrderIntakeDto();
+        dto.setReference(intake.getReference());
+        dto.setStatus(intake.getStatus().name());
+        dto.setOrderId(intake.getOrderId());
+        dto.setError(intake.getError());
+        dto.setCreatedAt(intake.getCreatedAt());
+        dto.setUpdatedAt(intake.getUpdatedAt());
+        dto.setOrder(order);
+        return dto;
+    }
+
+    // The request was re-queued and claimed again while this worker was still on it
+    public static class ClaimLostException extends RuntimeException {
+
+        public ClaimLostException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.pizzastore.order_service.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link OrderService} when it writes order events to the outbox, so the
+ * {@link OrderOutboxRelay} can send them as soon as the transaction has committed instead of
+ * waiting for its next poll. A bulk status update publishes one event for all of its orders.
+ */
+public record OrderOutboxRecordedEvent(List<Long> orderIds) {
+}
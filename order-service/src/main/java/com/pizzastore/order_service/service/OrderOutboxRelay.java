@@ -0,0 +1,220 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.entity.OrderOutboxEvent;
+import com.pizzastore.order_service.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends outbox rows to {@code order-events-out-0} in id order, one batch per transaction: the
+ * batch is locked, sent without waiting per message, then the broker's publisher confirms are
+ * awaited together and only confirmed rows are deleted. Anything unconfirmed stays and is sent
+ * again, so delivery is at-least-once and consumers must tolerate duplicates. The relay thread
+ * is a {@link SmartLifecycle}, so it is stopped before the persistence beans are destroyed.
+ */
+@Component
+public class OrderOutboxRelay implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    static final String ORDER_EVENTS_BINDING = "order-events-out-0";
+
+    private final OrderOutboxRepository outboxRepository;
+    private final StreamBridge streamBridge;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final boolean publisherConfirms;
+    private final Duration confirmTimeout;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private ExecutorService relayThread;
+    private volatile boolean running;
+
+    public OrderOutboxRelay(OrderOutboxRepository outboxRepository,
+                            StreamBridge streamBridge,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.outbox.batch-size:100}") int batchSize,
+                            @Value("${order.outbox.poll-interval:1s}") Duration pollInterval,
+                            @Value("${order.outbox.publisher-confirms:false}") boolean publisherConfirms,
+                            @Value("${order.outbox.confirm-timeout:5s}") Duration confirmTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.streamBridge = streamBridge;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.publisherConfirms = publisherConfirms;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        relayThread = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("order-outbox-relay").factory());
+        relayThread.submit(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp.release();
+        relayThread.shutdown();
+        try {
+            // Let the current batch finish; unconfirmed rows stay in the outbox either way
+            if (!relayThread.awaitTermination(10, TimeUnit.SECONDS)) {
+                relayThread.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            relayThread.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Only after commit: rolled-back changes leave no rows, and committed ones are visible to the relay
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxRecorded(OrderOutboxRecordedEvent event) {
+        wakeUp.release();
+    }
+
+    // Send everything pending; returns the number of events confirmed
+    public int relayPending() {
+        int relayed = 0;
+        int batch;
+        do {
+            batch = relayBatch();
+            relayed += batch;
+        } while (batch == batchSize);
+        return relayed;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // Woken by commits; the poll interval covers other instances' rows and retries after failures
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                relayPending();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Order outbox relay error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OrderOutboxEvent> batch = outboxRepository.findNextBatch(Limit.of(batchSize));
+
+            List<OrderOutboxEvent> sent = new ArrayList<>();
+            List<CorrelationData> correlations = new ArrayList<>();
+            for (OrderOutboxEvent event : batch) {
+                CorrelationData correlation = publisherConfirms ? new CorrelationData(event.getId().toString()) : null;
+                try {
+                    if (!streamBridge.send(ORDER_EVENTS_BINDING, toMessage(event, correlation))) {
+                        break;
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to send order event {} for order {}: {}", event.getId(), event.getOrderId(), e.getMessage());
+                    break;
+                }
+                sent.add(event);
+                correlations.add(correlation);
+            }
+
+            // Confirms arrive asynchronously; wait for the whole batch at once, stopping at the first failure to keep order
+            List<Long> confirmed = new ArrayList<>();
+            long deadline = System.nanoTime() + confirmTimeout.toNanos();
+            for (int i = 0; i < sent.size(); i++) {
+                if (correlations.get(i) != null && !isConfirmed(correlations.get(i), deadline)) {
+                    break;
+                }
+                OrderOutboxEvent event = sent.get(i);
+                confirmed.add(event.getId());
+                meterRegistry.timer("order.outbox.lag")
+                        .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            }
+            outboxRepository.deleteAllByIdInBatch(confirmed);
+
+            if (confirmed.size() < batch.size()) {
+                meterRegistry.counter("order.outbox.failures").increment(batch.size() - confirmed.size());
+                logger.warn("Relayed {} of {} order events; the rest will be retried", confirmed.size(), batch.size());
+            }
+            meterRegistry.counter("order.outbox.published").increment(confirmed.size());
+            return confirmed.size();
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    private Message<byte[]> toMessage(OrderOutboxEvent event, CorrelationData correlation) {
+        MessageBuilder<byte[]> message = MessageBuilder
+                .withPayload(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON_VALUE)
+                .setHeader("eventType", event.getEventType())
+                .setHeader("orderId", event.getOrderId().toString())
+                .setHeader("userId", event.getUserId().toString())
+                .setHeader("source", "ORDER-SERVICE");
+        if (correlation != null) {
+            message.setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlation);
+        }
+        return message.build();
+    }
+
+    private static boolean isConfirmed(CorrelationData correlation, long deadline) {
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture()
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                logger.warn("Order event {} nacked by broker: {}", correlation.getId(), confirm.getReason());
+            }
+            return confirm.isAck();
+        } catch (TimeoutException | ExecutionException e) {
+            logger.warn("No publisher confirm for order event {}: {}", correlation.getId(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,28 +1,47 @@
 package com.pizzastore.order_service.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.dto.CursorPage;
 import com.pizzastore.order_service.dto.MenuItemResponse;
 import com.pizzastore.order_service.dto.OrderDto;
 import com.pizzastore.order_service.dto.OrderItemDto;
 import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.dto.OrderStatusTotals;
+import com.pizzastore.order_service.dto.OrderStatusUpdateRequest;
+import com.pizzastore.order_service.dto.OrderStatusUpdateResult;
 import com.pizzastore.order_service.entity.DeliveryMode;
 import com.pizzastore.order_service.entity.Order;
 import com.pizzastore.order_service.entity.OrderItem;
+import com.pizzastore.order_service.entity.OrderOutboxEvent;
 import com.pizzastore.order_service.entity.OrderStatus;
+import com.pizzastore.order_service.exception.MenuUnavailableException;
+import com.pizzastore.order_service.exception.OrderStatusConflictException;
+import com.pizzastore.order_service.repository.OrderOutboxRepository;
 import com.pizzastore.order_service.repository.OrderRepository;
-import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import com.pizzastore.order_service.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.stream.function.StreamBridge;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -32,34 +51,43 @@ public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
+    public static final int MAX_BULK_STATUS_UPDATES = 500;
+
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
-    private MenuFeignClient menuFeignClient;
+    private MenuItemCache menuItemCache;
     @Autowired
     private StreamBridge streamBridge;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ObjectProvider<OrderStatisticsCounters> statisticsCounters;
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     // Create new order
     public OrderDto createOrder(OrderRequestDto orderRequest) {
         logger.info("Creating order for user ID: {}", orderRequest.getUserId());
 
-        // Fixed validation in OrderService.java
+        // Validate and price every line item from the local menu cache (at most one menu service call)
+        Map<Long, MenuItemResponse> menuItems = fetchMenuItems(orderRequest.getItems());
         for (OrderItemDto item : orderRequest.getItems()) {
-            try {
-                MenuItemResponse menuItem = menuFeignClient.getMenuItem(item.getMenuItemId());
-                if (menuItem == null) {
-                    throw new RuntimeException("Menu item not found with ID: " + item.getMenuItemId());
-                }
-                if (!menuItem.getAvailable()) {
-                    throw new RuntimeException("Menu item not available: " + menuItem.getName());
-                }
-                // Update item details from menu service
-                item.setItemName(menuItem.getName());
-                item.setPrice(BigDecimal.valueOf(menuItem.getPrice()));
-            } catch (Exception e) {
-                logger.error("Error validating menu item {}: {}", item.getMenuItemId(), e.getMessage());
+            MenuItemResponse menuItem = menuItems.get(item.getMenuItemId());
+            if (menuItem == null) {
+                logger.error("Menu item {} not returned by menu service", item.getMenuItemId());
                 throw new RuntimeException("Invalid menu item ID: " + item.getMenuItemId());
             }
+            if (!Boolean.TRUE.equals(menuItem.getAvailable())) {
+                throw new RuntimeException("Menu item not available: " + menuItem.getName());
+            }
+            // Update item details from menu service
+            item.setItemName(menuItem.getName());
+            item.setPrice(BigDecimal.valueOf(menuItem.getPrice()));
         }
 
         Order order = new Order();
@@ -97,6 +125,8 @@ public class OrderService {
 
         logger.info("Order created successfully with ID: {}", savedOrder.getOrderId());
 
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(null, savedOrder.getStatus(), savedOrder.getTotalAmount()));
+
         // 🚀 PUBLISH ORDER CREATED EVENT
         publishOrderEvent(savedOrder.getOrderId(), savedOrder.getUserId(), "ORDER_CREATED");
 
@@ -121,6 +151,14 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    // Get the user's most recent orders, newest first
+    public List<OrderDto> getRecentUserOrders(Long userId, int limit) {
+        List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDesc(userId, Limit.of(limit));
+        return orders.stream()
+                .map(this::convertToOrderDto)
+                .collect(Collectors.toList());
+    }
+
     // Get all orders (Admin)
     public List<OrderDto> getAllOrders() {
         List<Order> orders = orderRepository.findAll();
@@ -129,72 +167,205 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    // Get one keyset page of all orders (Admin)
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> getOrdersPage(String cursor, int size) {
+        int pageSize = PageCursor.clampPageSize(size);
+        List<Order> orders = orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(
+                PageCursor.decode(cursor), Limit.of(pageSize + 1));
+
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasMore ? PageCursor.encode(page.get(page.size() - 1).getOrderId()) : null;
+
+        List<OrderDto> items = page.stream()
+                .map(this::convertToOrderDto)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+
     // Update order status (Admin)
     public OrderDto updateOrderStatus(Long orderId, String status) {
+        return updateOrderStatus(orderId, null, status);
+    }
+
+    // Update order status along the OrderStatus transitions; expectedStatus, when given, must be the current status
+    public OrderDto updateOrderStatus(Long orderId, String expectedStatus, String status) {
         logger.info("Updating order {} status to {}", orderId, status);
 
+        OrderStatus newStatus = parseStatus(status);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
 
-        order.setStatus(OrderStatus.valueOf(status.toUpperCase()));
-        Order savedOrder = orderRepository.save(order);
+        OrderStatus previousStatus = expectedStatus != null ? parseStatus(expectedStatus) : order.getStatus();
+        // Repeating the current status is a no-op, so retried requests succeed
+        if (previousStatus == newStatus && order.getStatus() == newStatus) {
+            return convertToOrderDto(order);
+        }
+        if (!previousStatus.canTransitionTo(newStatus)) {
+            throw new OrderStatusConflictException("Order " + orderId + " cannot move from " + previousStatus + " to " + newStatus);
+        }
+
+        // Conditional UPDATE: a concurrent change since the read (or a stale expectedStatus) updates nothing
+        if (orderRepository.updateStatus(orderId, previousStatus, newStatus) == 0) {
+            throw new OrderStatusConflictException("Order " + orderId + " is no longer " + previousStatus);
+        }
 
         logger.info("Order status updated successfully");
 
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(previousStatus, newStatus, order.getTotalAmount()));
+
         // 🚀 PUBLISH ORDER STATUS UPDATE EVENT
-        publishOrderEvent(savedOrder.getOrderId(), savedOrder.getUserId(), "ORDER_" + status.toUpperCase());
+        publishOrderEvent(order.getOrderId(), order.getUserId(), "ORDER_" + newStatus.name());
 
-        return convertToOrderDto(savedOrder);
+        // The loaded entity still holds the old state; it is left untouched so nothing else is flushed
+        OrderDto orderDto = convertToOrderDto(order);
+        orderDto.setStatus(newStatus.name());
+        return orderDto;
+    }
+
+    // Apply many status changes in one transaction: one JDBC batch of conditional UPDATEs, one read, one batch of events
+    public List<OrderStatusUpdateResult> updateOrderStatuses(List<OrderStatusUpdateRequest> updates) {
+        if (updates.size() > MAX_BULK_STATUS_UPDATES) {
+            throw new RuntimeException("At most " + MAX_BULK_STATUS_UPDATES + " status updates per request");
+        }
+        logger.info("Updating status of {} orders", updates.size());
+
+        OrderStatusUpdateResult[] results = new OrderStatusUpdateResult[updates.size()];
+        List<Integer> pending = new ArrayList<>();
+        List<OrderStatus[]> transitions = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            OrderStatusUpdateRequest update = updates.get(i);
+            OrderStatus from = parseStatusOrNull(update.getFromStatus());
+            OrderStatus to = parseStatusOrNull(update.getToStatus());
+            if (update.getOrderId() == null || from == null || to == null) {
+                results[i] = new OrderStatusUpdateResult(update.getOrderId(), OrderStatusUpdateResult.INVALID, null,
+                        "orderId, fromStatus and toStatus must be given and be valid");
+            } else if (!from.canTransitionTo(to)) {
+                results[i] = new OrderStatusUpdateResult(update.getOrderId(), OrderStatusUpdateResult.CONFLICT, null,
+                        "Cannot move from " + from + " to " + to);
+            } else {
+                pending.add(i);
+                transitions.add(new OrderStatus[]{from, to});
+            }
+        }
+        if (pending.isEmpty()) {
+            return List.of(results);
+        }
+
+        int[] updatedRows = jdbcTemplate.batchUpdate(
+                "UPDATE orders SET status = ?, version = version + 1 WHERE order_id = ? AND status = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, transitions.get(i)[1].name());
+                        ps.setLong(2, updates.get(pending.get(i)).getOrderId());
+                        ps.setString(3, transitions.get(i)[0].name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return pending.size();
+                    }
+                });
+
+        // Current state of every order in the batch, for the events and for explaining conflicts
+        Map<Long, Order> orders = orderRepository.findAllById(pending.stream().map(i -> updates.get(i).getOrderId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Order::getOrderId, order -> order));
+
+        List<OrderOutboxEvent> events = new ArrayList<>();
+        for (int j = 0; j < pending.size(); j++) {
+            int i = pending.get(j);
+            Long orderId = updates.get(i).getOrderId();
+            OrderStatus from = transitions.get(j)[0];
+            OrderStatus to = transitions.get(j)[1];
+            Order order = orders.get(orderId);
+            if (order == null) {
+                results[i] = new OrderStatusUpdateResult(orderId, OrderStatusUpdateResult.NOT_FOUND, null,
+                        "Order not found with ID: " + orderId);
+            } else if (updatedRows[j] == 0) {
+                results[i] = new OrderStatusUpdateResult(orderId, OrderStatusUpdateResult.CONFLICT, order.getStatus().name(),
+                        "Order " + orderId + " is no longer " + from);
+            } else {
+                results[i] = new OrderStatusUpdateResult(orderId, OrderStatusUpdateResult.UPDATED, to.name(), null);
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(from, to, order.getTotalAmount()));
+                events.add(newOrderEvent(orderId, order.getUserId(), "ORDER_" + to.name()));
+            }
+        }
+
+        if (!events.isEmpty()) {
+            orderOutboxRepository.saveAll(events);
+            eventPublisher.publishEvent(new OrderOutboxRecordedEvent(events.stream().map(OrderOutboxEvent::getOrderId).toList()));
+        }
+        logger.info("Updated status of {} of {} orders", events.size(), updates.size());
+
+        return List.of(results);
     }
 
-    // Get order statistics
+    // Get order statistics, from in-memory counters when enabled, otherwise from one GROUP BY query
+    @Transactional(readOnly = true)
     public Map<String, Object> getOrderStatistics() {
+        OrderStatisticsCounters counters = statisticsCounters.getIfAvailable();
+        List<OrderStatusTotals> totals = counters != null ? counters.getTotals() : orderRepository.getStatusTotals();
+
+        Map<OrderStatus, OrderStatusTotals> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusTotals statusTotals : totals) {
+            byStatus.put(statusTotals.getStatus(), statusTotals);
+        }
+
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
         Map<String, Object> stats = new HashMap<>();
+        Map<String, BigDecimal> revenueByStatus = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            OrderStatusTotals statusTotals = byStatus.get(status);
+            long count = statusTotals != null ? statusTotals.getOrderCount() : 0L;
+            BigDecimal revenue = statusTotals != null ? statusTotals.getRevenue() : BigDecimal.ZERO;
+
+            stats.put(status.name().toLowerCase() + "Orders", count);
+            revenueByStatus.put(status.name(), revenue);
+            totalOrders += count;
+            // Cancelled orders are counted but do not contribute to revenue
+            if (status != OrderStatus.CANCELLED) {
+                totalRevenue = totalRevenue.add(revenue);
+            }
+        }
 
-        stats.put("totalOrders", orderRepository.count());
-        stats.put("pendingOrders", orderRepository.countByStatus(OrderStatus.PENDING));
-        stats.put("confirmedOrders", orderRepository.countByStatus(OrderStatus.CONFIRMED));
-        stats.put("deliveredOrders", orderRepository.countByStatus(OrderStatus.DELIVERED));
-        stats.put("cancelledOrders", orderRepository.countByStatus(OrderStatus.CANCELLED));
+        stats.put("totalOrders", totalOrders);
+        stats.put("totalRevenue", totalRevenue);
+        stats.put("revenueByStatus", revenueByStatus);
 
         return stats;
     }
 
-    // 🔥 NEW: Publish Order Event Method
+    // Record an order event in the outbox, in the caller's transaction; OrderOutboxRelay sends it after commit
     public void publishOrderEvent(Long orderId, Long userId, String eventType) {
-        try {
-            // Create event payload
-            Map<String, Object> orderEventPayload = new HashMap<>();
-            orderEventPayload.put("orderId", orderId.toString());
-            orderEventPayload.put("userId", userId.toString());
-            orderEventPayload.put("eventType", eventType);
-            orderEventPayload.put("timestamp", LocalDateTime.now().toString());
-            orderEventPayload.put("serviceName", "ORDER-SERVICE");
-
-            // Build message with headers
-            Message<Map<String, Object>> message = MessageBuilder
-                    .withPayload(orderEventPayload)
-                    .setHeader("eventType", eventType)
-                    .setHeader("orderId", orderId.toString())
-                    .setHeader("userId", userId.toString())
-                    .setHeader("source", "ORDER-SERVICE")
-                    .build();
-
-            // Send to order.events destination
-            boolean sent = streamBridge.send("order-events-out-0", message);
+        orderOutboxRepository.save(newOrderEvent(orderId, userId, eventType));
+        eventPublisher.publishEvent(new OrderOutboxRecordedEvent(List.of(orderId)));
 
-            if (sent) {
-                logger.info("✅ Published order event: {} for order: {} to queue: order.events",
-                        eventType, orderId);
-            } else {
-                logger.warn("❌ Failed to publish order event: {} for order: {}", eventType, orderId);
-            }
+        logger.info("Recorded order event: {} for order: {}", eventType, orderId);
+    }
 
-        } catch (Exception e) {
-            logger.error("💥 Error publishing order event: {} for order: {} - {}",
-                    eventType, orderId, e.getMessage(), e);
-            // Don't throw exception to avoid breaking the main order flow
+    private OrderOutboxEvent newOrderEvent(Long orderId, Long userId, String eventType) {
+        // Create event payload
+        Map<String, Object> orderEventPayload = new HashMap<>();
+        orderEventPayload.put("orderId", orderId.toString());
+        orderEventPayload.put("userId", userId.toString());
+        orderEventPayload.put("eventType", eventType);
+        orderEventPayload.put("timestamp", LocalDateTime.now().toString());
+        orderEventPayload.put("serviceName", "ORDER-SERVICE");
+
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(orderId);
+        event.setUserId(userId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(orderEventPayload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to record order event " + eventType + " for order " + orderId);
         }
+        return event;
     }
 
     // 🔥 NEW: Direct Notification Publishing (Optional)
@@ -222,6 +393,38 @@ public class OrderService {
     }
 
 
+    // Fetch all distinct menu items referenced by the order, keyed by item ID
+    private Map<Long, MenuItemResponse> fetchMenuItems(List<OrderItemDto> items) {
+        List<Long> menuItemIds = items.stream()
+                .map(OrderItemDto::getMenuItemId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        try {
+            return menuItemCache.getMenuItems(menuItemIds);
+        } catch (Exception e) {
+            logger.error("Error fetching menu items {}: {}", menuItemIds, e.getMessage());
+            throw new MenuUnavailableException("Unable to validate menu items: " + menuItemIds, e);
+        }
+    }
+
+    // Case-insensitive status name, or null when it is missing or unknown
+    private static OrderStatus parseStatusOrNull(String status) {
+        try {
+            return OrderStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        OrderStatus parsed = parseStatusOrNull(status);
+        if (parsed == null) {
+            throw new RuntimeException("Invalid order status: " + status);
+        }
+        return parsed;
+    }
+
     // Helper method to convert Order to OrderDto
     private OrderDto convertToOrderDto(Order order) {
         OrderDto dto = new OrderDto();
@@ -0,0 +1,111 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.dto.OrderStatusTotals;
+import com.pizzastore.order_service.entity.OrderStatus;
+import com.pizzastore.order_service.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory per-status order counts and revenue, so statistics polls do not touch the database.
+ * Counters are adjusted after each order change commits and periodically reset from the
+ * database, which also corrects any drift from changes made outside this instance.
+ * Enabled with {@code order.statistics.counters.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.statistics.counters", name = "enabled", havingValue = "true")
+public class OrderStatisticsCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatisticsCounters.class);
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<OrderStatus, LongAdder> orderCounts = new EnumMap<>(OrderStatus.class);
+    // Revenue is kept in cents so it can be accumulated without locking
+    private final Map<OrderStatus, LongAdder> revenueCents = new EnumMap<>(OrderStatus.class);
+
+    public OrderStatisticsCounters(OrderRepository orderRepository, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (OrderStatus status : OrderStatus.values()) {
+            orderCounts.put(status, new LongAdder());
+            revenueCents.put(status, new LongAdder());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        long cents = toCents(event.amount());
+        if (event.previousStatus() != null) {
+            orderCounts.get(event.previousStatus()).decrement();
+            revenueCents.get(event.previousStatus()).add(-cents);
+        }
+        orderCounts.get(event.newStatus()).increment();
+        revenueCents.get(event.newStatus()).add(cents);
+    }
+
+    public List<OrderStatusTotals> getTotals() {
+        List<OrderStatusTotals> totals = new ArrayList<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            totals.add(new OrderStatusTotals(status,
+                    orderCounts.get(status).sum(),
+                    BigDecimal.valueOf(revenueCents.get(status).sum(), 2)));
+        }
+        return totals;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    // Reset every counter from a single aggregate query
+    @Scheduled(fixedDelayString = "${order.statistics.counters.reconcile-interval:PT5M}",
+            initialDelayString = "${order.statistics.counters.reconcile-interval:PT5M}")
+    public synchronized void reconcile() {
+        List<OrderStatusTotals> totals = transactionTemplate.execute(status -> orderRepository.getStatusTotals());
+
+        Map<OrderStatus, OrderStatusTotals> byStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusTotals statusTotals : totals) {
+            byStatus.put(statusTotals.getStatus(), statusTotals);
+        }
+
+        for (OrderStatus status : OrderStatus.values()) {
+            OrderStatusTotals statusTotals = byStatus.get(status);
+            reset(orderCounts.get(status), statusTotals != null ? statusTotals.getOrderCount() : 0L);
+            reset(revenueCents.get(status), statusTotals != null ? toCents(statusTotals.getRevenue()) : 0L);
+        }
+
+        logger.debug("Reconciled order statistics counters for {} statuses", byStatus.size());
+    }
+
+    private static void reset(LongAdder adder, long value) {
+        adder.reset();
+        adder.add(value);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
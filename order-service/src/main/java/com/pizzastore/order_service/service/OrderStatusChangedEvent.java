@@ -0,0 +1,14 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.entity.OrderStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by {@link OrderService} when an order is created or moves to another status,
+ * so in-memory statistics can be adjusted once the change has committed.
+ *
+ * @param previousStatus the status before the change, or {@code null} for a new order
+ */
+public record OrderStatusChangedEvent(OrderStatus previousStatus, OrderStatus newStatus, BigDecimal amount) {
+}
@@ -4,6 +4,9 @@ import com.pizzastore.order_service.dto.MenuItemResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "MENU-SERVICE")
 public interface MenuFeignClient {
@@ -11,4 +14,7 @@ public interface MenuFeignClient {
     @GetMapping("/api/menu/items/{itemId}")
     MenuItemResponse getMenuItem(@PathVariable Long itemId);
 
+    @GetMapping("/api/menu/items/batch")
+    List<MenuItemResponse> getMenuItems(@RequestParam("ids") List<Long> ids);
+
 }
@@ -0,0 +1,121 @@
+package com.pizzastore.order_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.entity.Order;
+import com.pizzastore.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-paging",
+		"order.outbox.publisher-confirms=false"
+})
+@AutoConfigureMockMvc
+@Import(TestChannelBinderConfiguration.class)
+class OrderPagingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAll();
+		for (int i = 0; i < 5; i++) {
+			Order order = new Order();
+			order.setUserId(51L);
+			order.setTotalAmount(new BigDecimal("10.00"));
+			orderRepository.save(order);
+		}
+	}
+
+	@Test
+	void pagesCoverEveryOrderAndTheLastHasNoCursor() throws Exception {
+		List<Long> orderIds = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = getPage(cursor, 2);
+			page.get("items").forEach(order -> orderIds.add(order.get("orderId").asLong()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(orderIds).containsExactlyElementsOf(allOrderIds());
+	}
+
+	@Test
+	void pageSizeIsClamped() throws Exception {
+		JsonNode smallest = getPage(null, 0);
+		assertThat(smallest.get("items")).hasSize(1);
+		assertThat(smallest.get("nextCursor").isNull()).isFalse();
+
+		JsonNode largest = getPage(null, 100_000);
+		assertThat(largest.get("items")).hasSize(5);
+		assertThat(largest.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		mockMvc.perform(get("/api/orders/admin/all/page").param("cursor", "not-a-cursor!"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/orders/admin/all/page").param("cursor", "YWJj"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportStreamsEveryOrderAsNdjson() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/orders/admin/all/export"))
+				.andExpect(status().isOk())
+				.andReturn();
+		String ndjson = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		List<Long> orderIds = new ArrayList<>();
+		for (String line : Arrays.stream(ndjson.split("\n")).filter(line -> !line.isBlank()).toList()) {
+			orderIds.add(objectMapper.readTree(line).get("orderId").asLong());
+		}
+		assertThat(orderIds).containsExactlyElementsOf(allOrderIds());
+	}
+
+	private JsonNode getPage(String cursor, int size) throws Exception {
+		MockHttpServletRequestBuilder request = get("/api/orders/admin/all/page").param("size", String.valueOf(size));
+		if (cursor != null) {
+			request.param("cursor", cursor);
+		}
+		String body = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private List<Long> allOrderIds() {
+		return orderRepository.findAll().stream().map(Order::getOrderId).sorted().toList();
+	}
+}
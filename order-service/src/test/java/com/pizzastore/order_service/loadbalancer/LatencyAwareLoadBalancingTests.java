@@ -0,0 +1,33 @@
+package com.pizzastore.order_service.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-load-balancing")
+@Import(TestChannelBinderConfiguration.class)
+class LatencyAwareLoadBalancingTests {
+
+	@Autowired
+	private LoadBalancerClientFactory loadBalancerClientFactory;
+
+	@Autowired
+	private InstanceLatencyTracker instanceLatencyTracker;
+
+	@Test
+	void feignTargetsUseLatencyAwareLoadBalancerAndReportToTracker() {
+		for (String serviceId : new String[]{"MENU-SERVICE", "USER-SERVICE"}) {
+			assertThat(loadBalancerClientFactory.getInstance(serviceId))
+					.isInstanceOf(LatencyAwareLoadBalancer.class);
+			// The blocking client invokes the lifecycle beans visible from the per-service context
+			assertThat(loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class).values())
+					.contains(instanceLatencyTracker);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.dto.MenuItemEvent;
+import com.pizzastore.order_service.dto.MenuItemResponse;
+import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-menu-cache")
+@Import(TestChannelBinderConfiguration.class)
+class MenuItemCacheTests {
+
+	@Autowired
+	private MenuItemCache menuItemCache;
+
+	@Autowired
+	private InputDestination inputDestination;
+
+	@MockitoBean
+	private MenuFeignClient menuFeignClient;
+
+	@Test
+	void menuEventsRefreshAndEvictCachedItems() {
+		when(menuFeignClient.getMenuItems(anyList())).thenReturn(List.of(menuItem(1L, 10.0, true)));
+
+		// First lookup goes to the menu service, second is served from the cache
+		menuItemCache.getMenuItems(List.of(1L));
+		menuItemCache.getMenuItems(List.of(1L));
+		verify(menuFeignClient, times(1)).getMenuItems(anyList());
+
+		// An update event refreshes the entry in place
+		MenuItemEvent updated = menuItemEvent("MENU_ITEM_AVAILABILITY_CHANGED", 1L);
+		updated.setPrice(12.5);
+		updated.setAvailable(false);
+		inputDestination.send(MessageBuilder.withPayload(updated).build(), "menu.events");
+
+		Map<Long, MenuItemResponse> refreshed = menuItemCache.getMenuItems(List.of(1L));
+		assertThat(refreshed.get(1L).getPrice()).isEqualTo(12.5);
+		assertThat(refreshed.get(1L).getAvailable()).isFalse();
+		verify(menuFeignClient, times(1)).getMenuItems(anyList());
+
+		// A delete event evicts the entry, so the next lookup goes back to the menu service
+		inputDestination.send(MessageBuilder.withPayload(menuItemEvent(MenuItemEvent.MENU_ITEM_DELETED, 1L)).build(),
+				"menu.events");
+
+		menuItemCache.getMenuItems(List.of(1L));
+		verify(menuFeignClient, times(2)).getMenuItems(anyList());
+	}
+
+	@Test
+	void eventsDuringAFetchWinOverTheOlderResponse() {
+		// The event for item 2 is applied while the menu service call is in flight
+		MenuItemEvent repriced = menuItemEvent("MENU_ITEM_UPDATED", 2L);
+		repriced.setPrice(15.0);
+		repriced.setAvailable(true);
+		when(menuFeignClient.getMenuItems(List.of(2L))).thenAnswer(invocation -> {
+			menuItemCache.onMenuItemEvent(repriced);
+			return List.of(menuItem(2L, 10.0, true));
+		});
+
+		assertThat(menuItemCache.getMenuItems(List.of(2L)).get(2L).getPrice()).isEqualTo(15.0);
+		assertThat(menuItemCache.getMenuItems(List.of(2L)).get(2L).getPrice()).isEqualTo(15.0);
+		verify(menuFeignClient, times(1)).getMenuItems(List.of(2L));
+
+		// An eviction during the call sticks: the stale response is not cached, the next lookup fetches again
+		when(menuFeignClient.getMenuItems(List.of(3L))).thenAnswer(invocation -> {
+			menuItemCache.onMenuItemEvent(menuItemEvent(MenuItemEvent.MENU_ITEM_DELETED, 3L));
+			return List.of(menuItem(3L, 10.0, true));
+		});
+
+		menuItemCache.getMenuItems(List.of(3L));
+		menuItemCache.getMenuItems(List.of(3L));
+		verify(menuFeignClient, times(2)).getMenuItems(List.of(3L));
+	}
+
+	private MenuItemResponse menuItem(Long itemId, Double price, Boolean available) {
+		MenuItemResponse menuItem = new MenuItemResponse();
+		menuItem.setItemId(itemId);
+		menuItem.setName("Margherita");
+		menuItem.setPrice(price);
+		menuItem.setAvailable(available);
+		menuItem.setCategoryName("Pizza");
+		return menuItem;
+	}
+
+	private MenuItemEvent menuItemEvent(String eventType, Long itemId) {
+		MenuItemEvent event = new MenuItemEvent();
+		event.setEventType(eventType);
+		event.setItemId(itemId);
+		event.setName("Margherita");
+		event.setCategoryName("Pizza");
+		return event;
+	}
+}
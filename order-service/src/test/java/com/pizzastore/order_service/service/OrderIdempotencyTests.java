@@ -0,0 +1,154 @@
+package com.pizzastore.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.dto.MenuItemResponse;
+import com.pizzastore.order_service.repository.OrderIdempotencyKeyRepository;
+import com.pizzastore.order_service.repository.OrderRepository;
+import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-idempotency",
+		"order.idempotency.persistent=true",
+		"order.outbox.publisher-confirms=false"
+})
+@AutoConfigureMockMvc
+@Import(TestChannelBinderConfiguration.class)
+class OrderIdempotencyTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderIdempotencyKeyRepository keyRepository;
+
+	@Autowired
+	private OrderIdempotencyStore idempotencyStore;
+
+	@MockitoBean
+	private MenuFeignClient menuFeignClient;
+
+	@Test
+	void retryWithTheSameKeyReturnsTheOriginalOrder() throws Exception {
+		when(menuFeignClient.getMenuItems(anyList())).thenReturn(List.of(menuItem(101L)));
+
+		MvcResult created = createOrder(21L, "retry-1", 2)
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "false"))
+				.andReturn();
+		MvcResult replayed = createOrder(21L, "retry-1", 2)
+				.andExpect(status().isCreated())
+				.andExpect(header().string("Idempotent-Replayed", "true"))
+				.andReturn();
+
+		assertThat(orderId(replayed)).isEqualTo(orderId(created));
+		assertThat(orderRepository.findByUserId(21L)).hasSize(1);
+
+		// Keys are scoped to the user
+		createOrder(22L, "retry-1", 2).andExpect(header().string("Idempotent-Replayed", "false"));
+		assertThat(orderRepository.findByUserId(22L)).hasSize(1);
+	}
+
+	@Test
+	void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+		when(menuFeignClient.getMenuItems(anyList())).thenAnswer(invocation -> {
+			Thread.sleep(300);
+			return List.of(menuItem(101L));
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				Callable<Long> duplicate = () -> orderId(createOrder(23L, "double-tap", 1).andExpect(status().isCreated()).andReturn());
+				results.add(executor.submit(duplicate));
+			}
+			Long orderId = results.get(0).get();
+			for (Future<Long> result : results) {
+				assertThat(result.get()).isEqualTo(orderId);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(orderRepository.findByUserId(23L)).hasSize(1);
+	}
+
+	@Test
+	void reusingAKeyForADifferentOrderIsRefused() throws Exception {
+		when(menuFeignClient.getMenuItems(anyList())).thenReturn(List.of(menuItem(101L)));
+
+		createOrder(24L, "reused", 1).andExpect(status().isCreated());
+		createOrder(24L, "reused", 3).andExpect(status().isUnprocessableEntity());
+		createOrder(24L, "x".repeat(256), 1).andExpect(status().isBadRequest());
+
+		assertThat(orderRepository.findByUserId(24L)).hasSize(1);
+	}
+
+	@Test
+	void recordedKeysReplayAfterTheLocalStoreIsLost() throws Exception {
+		when(menuFeignClient.getMenuItems(anyList())).thenReturn(List.of(menuItem(101L)));
+
+		Long orderId = orderId(createOrder(25L, "restart", 1).andReturn());
+		assertThat(keyRepository.findById("25:restart")).isPresent();
+
+		idempotencyStore.clearLocal();
+
+		MvcResult replayed = createOrder(25L, "restart", 1)
+				.andExpect(header().string("Idempotent-Replayed", "true"))
+				.andReturn();
+		assertThat(orderId(replayed)).isEqualTo(orderId);
+		assertThat(orderRepository.findByUserId(25L)).hasSize(1);
+	}
+
+	private ResultActions createOrder(Long userId, String key, int quantity) throws Exception {
+		return mockMvc.perform(post("/api/orders")
+				.header("Idempotency-Key", key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"userId\":" + userId + ",\"deliveryMode\":\"DELIVERY\",\"deliveryAddress\":\"1 Main St\","
+						+ "\"items\":[{\"menuItemId\":101,\"quantity\":" + quantity + "}]}"));
+	}
+
+	private Long orderId(MvcResult result) throws Exception {
+		return objectMapper.readTree(result.getResponse().getContentAsString()).get("orderId").asLong();
+	}
+
+	private MenuItemResponse menuItem(Long itemId) {
+		MenuItemResponse menuItem = new MenuItemResponse();
+		menuItem.setItemId(itemId);
+		menuItem.setName("Margherita");
+		menuItem.setPrice(12.5);
+		menuItem.setAvailable(true);
+		menuItem.setCategoryName("Pizza");
+		return menuItem;
+	}
+}
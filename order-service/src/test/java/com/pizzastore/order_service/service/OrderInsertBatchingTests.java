@@ -0,0 +1,96 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.dto.MenuItemResponse;
+import com.pizzastore.order_service.dto.OrderItemDto;
+import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-insert-batching",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(TestChannelBinderConfiguration.class)
+class OrderInsertBatchingTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@MockitoBean
+	private MenuFeignClient menuFeignClient;
+
+	// Keeps the relay's polling and deletes out of the statement counts
+	@MockitoBean
+	private OrderOutboxRelay outboxRelay;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		when(menuFeignClient.getMenuItems(anyList())).thenReturn(
+				LongStream.rangeClosed(1, 20).mapToObj(this::menuItem).toList());
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void statementsPerOrderDoNotGrowWithLineItems() {
+		// The pooled optimizer reads each sequence twice on first use; after that ids come from memory
+		orderService.createOrder(orderRequest(1));
+		orderService.createOrder(orderRequest(1));
+
+		long single = statementsToCreate(1);
+		long five = statementsToCreate(5);
+		long twenty = statementsToCreate(20);
+
+		// One INSERT each into orders, order_items and order_outbox
+		assertThat(single).isEqualTo(3);
+		assertThat(five).isEqualTo(single);
+		assertThat(twenty).isEqualTo(single);
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + 20 + 1);
+	}
+
+	private long statementsToCreate(int lineItems) {
+		statistics.clear();
+		orderService.createOrder(orderRequest(lineItems));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private OrderRequestDto orderRequest(int lineItems) {
+		OrderRequestDto request = new OrderRequestDto();
+		request.setUserId(41L);
+		request.setDeliveryAddress("1 Main St");
+		request.setItems(LongStream.rangeClosed(1, lineItems)
+				.mapToObj(menuItemId -> new OrderItemDto(menuItemId, 1, null, null))
+				.toList());
+		return request;
+	}
+
+	private MenuItemResponse menuItem(long itemId) {
+		MenuItemResponse menuItem = new MenuItemResponse();
+		menuItem.setItemId(itemId);
+		menuItem.setName("Pizza " + itemId);
+		menuItem.setPrice(10.0);
+		menuItem.setAvailable(true);
+		menuItem.setCategoryName("Pizza");
+		return menuItem;
+	}
+}
@@ -0,0 +1,176 @@
+package com.pizzastore.order_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.dto.MenuItemResponse;
+import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-intake",
+		"order.intake.workers=2",
+		"order.intake.sweep-interval=200ms",
+		"order.outbox.publisher-confirms=false"
+})
+@AutoConfigureMockMvc
+@Import(TestChannelBinderConfiguration.class)
+class OrderIntakeTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private OrderIntakePipeline orderIntakePipeline;
+
+	@MockitoBean
+	private MenuFeignClient menuFeignClient;
+
+	@Test
+	void queuedOrderIsPricedAndPersistedByVirtualThreadWorkers() throws Exception {
+		AtomicBoolean pricedOnVirtualThread = new AtomicBoolean();
+		when(menuFeignClient.getMenuItems(eq(List.of(101L)))).thenAnswer(invocation -> {
+			pricedOnVirtualThread.set(Thread.currentThread().isVirtual());
+			return List.of(menuItem(101L, 12.5, true));
+		});
+
+		MvcResult queued = mockMvc.perform(post("/api/orders/intake")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(orderRequest(101L, 2, "DELIVERY")))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists("Location"))
+				.andExpect(jsonPath("$.status").value("QUEUED"))
+				.andReturn();
+
+		JsonNode result = awaitResult(queued.getResponse().getHeader("Location"));
+		assertThat(result.get("status").asText()).isEqualTo("COMPLETED");
+		assertThat(result.get("order").get("totalAmount").decimalValue()).isEqualByComparingTo("25.00");
+		assertThat(result.get("order").get("items").get(0).get("itemName").asText()).isEqualTo("Margherita");
+		assertThat(pricedOnVirtualThread).isTrue();
+	}
+
+	@Test
+	void invalidItemsAreRejectedAfterAcceptance() throws Exception {
+		when(menuFeignClient.getMenuItems(eq(List.of(102L)))).thenReturn(List.of());
+
+		String location = mockMvc.perform(post("/api/orders/intake")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(orderRequest(102L, 1, "PICKUP")))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse().getHeader("Location");
+
+		JsonNode result = awaitResult(location);
+		assertThat(result.get("status").asText()).isEqualTo("REJECTED");
+		assertThat(result.get("error").asText()).contains("Invalid menu item ID: 102");
+	}
+
+	@Test
+	void requestsSurviveAMenuOutageAndAreSweptBackIn() throws Exception {
+		when(menuFeignClient.getMenuItems(eq(List.of(103L))))
+				.thenThrow(new RuntimeException("Connection refused"))
+				.thenReturn(List.of(menuItem(103L, 8.0, true)));
+
+		String location = mockMvc.perform(post("/api/orders/intake")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(orderRequest(103L, 1, "DELIVERY")))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse().getHeader("Location");
+
+		// First attempt is released back to the queue; the sweep hands it to a worker again
+		JsonNode result = awaitResult(location);
+		assertThat(result.get("status").asText()).isEqualTo("COMPLETED");
+		assertThat(result.get("order").get("totalAmount").decimalValue()).isEqualByComparingTo("8.00");
+	}
+
+	@Test
+	void malformedRequestsAreRefusedBeforeQueueing() throws Exception {
+		mockMvc.perform(post("/api/orders/intake")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(orderRequest(104L, 1, "TELEPORT")))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/orders/intake/no-such-reference"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void unknownReferencesAreNotWaitedOn() throws Exception {
+		mockMvc.perform(get("/api/orders/intake/no-such-reference").param("wait", "30"))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isNotFound());
+
+		assertThat(orderIntakePipeline.waiterCount("no-such-reference")).isZero();
+	}
+
+	@Test
+	void shortWaitsDoNotCutOtherWaitersShort() throws Exception {
+		CompletableFuture<Void> longPoll = orderIntakePipeline.awaitResult("shared-reference", Duration.ofSeconds(30));
+		CompletableFuture<Void> shortPoll = orderIntakePipeline.awaitResult("shared-reference", Duration.ofMillis(100));
+
+		assertThatThrownBy(shortPoll::join).hasCauseInstanceOf(TimeoutException.class);
+		assertThat(longPoll).isNotDone();
+
+		// A waiter arriving after the timeout gets a fresh future
+		CompletableFuture<Void> later = orderIntakePipeline.awaitResult("shared-reference", Duration.ofSeconds(30));
+		assertThat(later).isNotDone();
+		longPoll.cancel(false);
+		later.cancel(false);
+	}
+
+	// Long-poll until the request has finished
+	private JsonNode awaitResult(String location) throws Exception {
+		long deadline = System.currentTimeMillis() + 10_000;
+		JsonNode result;
+		do {
+			MvcResult polled = mockMvc.perform(get(location).param("wait", "5")).andReturn();
+			MvcResult dispatched = mockMvc.perform(asyncDispatch(polled)).andExpect(status().isOk()).andReturn();
+			result = objectMapper.readTree(dispatched.getResponse().getContentAsString());
+		} while (("QUEUED".equals(result.get("status").asText()) || "PROCESSING".equals(result.get("status").asText()))
+				&& System.currentTimeMillis() < deadline);
+		return result;
+	}
+
+	private String orderRequest(Long menuItemId, int quantity, String deliveryMode) {
+		return "{\"userId\":7,\"deliveryMode\":\"" + deliveryMode + "\",\"deliveryAddress\":\"1 Main St\","
+				+ "\"items\":[{\"menuItemId\":" + menuItemId + ",\"quantity\":" + quantity + "}]}";
+	}
+
+	private MenuItemResponse menuItem(Long itemId, Double price, Boolean available) {
+		MenuItemResponse menuItem = new MenuItemResponse();
+		menuItem.setItemId(itemId);
+		menuItem.setName("Margherita");
+		menuItem.setPrice(price);
+		menuItem.setAvailable(available);
+		menuItem.setCategoryName("Pizza");
+		return menuItem;
+	}
+}
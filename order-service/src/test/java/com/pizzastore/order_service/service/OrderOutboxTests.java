@@ -0,0 +1,152 @@
+package com.pizzastore.order_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.order_service.dto.MenuItemResponse;
+import com.pizzastore.order_service.dto.OrderDto;
+import com.pizzastore.order_service.dto.OrderItemDto;
+import com.pizzastore.order_service.dto.OrderRequestDto;
+import com.pizzastore.order_service.repository.OrderOutboxRepository;
+import com.pizzastore.order_service.repository.OrderRepository;
+import com.pizzastore.order_service.service.clients.MenuFeignClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-outbox",
+		"order.outbox.batch-size=2",
+		"order.outbox.poll-interval=200ms",
+		"order.outbox.publisher-confirms=false"
+})
+@Import(TestChannelBinderConfiguration.class)
+class OrderOutboxTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderOutboxRepository outboxRepository;
+
+	@Autowired
+	private OutputDestination outputDestination;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockitoBean
+	private MenuFeignClient menuFeignClient;
+
+	@MockitoSpyBean
+	private StreamBridge streamBridge;
+
+	@BeforeEach
+	void setUp() {
+		outputDestination.clear();
+		when(menuFeignClient.getMenuItems(anyList())).thenReturn(List.of(menuItem(1L)));
+	}
+
+	@Test
+	void committedChangesAreRelayedInOrderAcrossBatches() throws Exception {
+		OrderDto order = orderService.createOrder(orderRequest());
+		orderService.updateOrderStatus(order.getOrderId(), "CONFIRMED");
+		orderService.updateOrderStatus(order.getOrderId(), "PREPARING");
+
+		for (String expected : new String[]{"ORDER_CREATED", "ORDER_CONFIRMED", "ORDER_PREPARING"}) {
+			Message<byte[]> message = outputDestination.receive(5000, "order.events");
+			assertThat(message).isNotNull();
+			assertThat(message.getHeaders().get("eventType")).isEqualTo(expected);
+			assertThat(message.getHeaders().get("orderId")).isEqualTo(order.getOrderId().toString());
+
+			JsonNode payload = objectMapper.readTree(message.getPayload());
+			assertThat(payload.get("eventType").asText()).isEqualTo(expected);
+			assertThat(payload.get("serviceName").asText()).isEqualTo("ORDER-SERVICE");
+		}
+		awaitEmptyOutbox();
+	}
+
+	@Test
+	void rolledBackOrdersEmitNothing() {
+		long ordersBefore = orderRepository.count();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			orderService.createOrder(orderRequest());
+			status.setRollbackOnly();
+		});
+
+		assertThat(outputDestination.receive(1000, "order.events")).isNull();
+		assertThat(orderRepository.count()).isEqualTo(ordersBefore);
+		assertThat(outboxRepository.count()).isZero();
+	}
+
+	@Test
+	void failedSendsStayInTheOutboxUntilDelivered() {
+		double failuresBefore = meterRegistry.counter("order.outbox.failures").count();
+		doReturn(false).doCallRealMethod()
+				.when(streamBridge).send(eq(OrderOutboxRelay.ORDER_EVENTS_BINDING), any(Object.class));
+
+		OrderDto order = orderService.createOrder(orderRequest());
+
+		// The first attempt fails; the next poll sends the row that was kept
+		Message<byte[]> message = outputDestination.receive(5000, "order.events");
+		assertThat(message).isNotNull();
+		assertThat(message.getHeaders().get("orderId")).isEqualTo(order.getOrderId().toString());
+		assertThat(meterRegistry.counter("order.outbox.failures").count()).isGreaterThan(failuresBefore);
+		awaitEmptyOutbox();
+	}
+
+	private void awaitEmptyOutbox() {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (outboxRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(outboxRepository.count()).isZero();
+	}
+
+	private OrderRequestDto orderRequest() {
+		OrderRequestDto request = new OrderRequestDto();
+		request.setUserId(7L);
+		request.setDeliveryAddress("1 Main St");
+		request.setItems(List.of(new OrderItemDto(1L, 2, null, null)));
+		return request;
+	}
+
+	private MenuItemResponse menuItem(Long itemId) {
+		MenuItemResponse menuItem = new MenuItemResponse();
+		menuItem.setItemId(itemId);
+		menuItem.setName("Margherita");
+		menuItem.setPrice(10.0);
+		menuItem.setAvailable(true);
+		menuItem.setCategoryName("Pizza");
+		return menuItem;
+	}
+}
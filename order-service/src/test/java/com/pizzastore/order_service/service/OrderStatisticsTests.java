@@ -0,0 +1,97 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.entity.Order;
+import com.pizzastore.order_service.entity.OrderStatus;
+import com.pizzastore.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-statistics",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"order.statistics.counters.enabled=true",
+		"order.outbox.publisher-confirms=false"
+})
+@Import(TestChannelBinderConfiguration.class)
+class OrderStatisticsTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderStatisticsCounters statisticsCounters;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	// Keeps the relay's polling and deletes out of the statement counts
+	@MockitoBean
+	private OrderOutboxRelay outboxRelay;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void statusTotalsComeFromOneQuery() {
+		createOrder(OrderStatus.PENDING, "10.00");
+		createOrder(OrderStatus.PENDING, "5.50");
+		createOrder(OrderStatus.DELIVERED, "20.00");
+		createOrder(OrderStatus.CANCELLED, "7.25");
+
+		statistics.clear();
+		assertThat(orderRepository.getStatusTotals()).hasSize(3);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void countersTrackStatusChangesWithoutQueries() {
+		Order order = createOrder(OrderStatus.PENDING, "10.00");
+		createOrder(OrderStatus.DELIVERED, "20.00");
+		statisticsCounters.reconcile();
+
+		orderService.updateOrderStatus(order.getOrderId(), "CANCELLED");
+
+		statistics.clear();
+		Map<String, Object> stats = orderService.getOrderStatistics();
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+
+		assertThat(stats.get("totalOrders")).isEqualTo(2L);
+		assertThat(stats.get("pendingOrders")).isEqualTo(0L);
+		assertThat(stats.get("cancelledOrders")).isEqualTo(1L);
+		assertThat(stats.get("deliveredOrders")).isEqualTo(1L);
+		assertThat((BigDecimal) stats.get("totalRevenue")).isEqualByComparingTo("20.00");
+
+		// Reconciling against the database leaves consistent counters unchanged
+		statisticsCounters.reconcile();
+		assertThat(orderService.getOrderStatistics()).isEqualTo(stats);
+	}
+
+	private Order createOrder(OrderStatus status, String amount) {
+		Order order = new Order();
+		order.setUserId(1L);
+		order.setStatus(status);
+		order.setTotalAmount(new BigDecimal(amount));
+		return orderRepository.save(order);
+	}
+}
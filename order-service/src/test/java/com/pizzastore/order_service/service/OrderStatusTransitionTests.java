@@ -0,0 +1,159 @@
+package com.pizzastore.order_service.service;
+
+import com.pizzastore.order_service.entity.Order;
+import com.pizzastore.order_service.entity.OrderStatus;
+import com.pizzastore.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.Message;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:order-status-transitions",
+		"order.outbox.publisher-confirms=false"
+})
+@AutoConfigureMockMvc
+@Import(TestChannelBinderConfiguration.class)
+class OrderStatusTransitionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OutputDestination outputDestination;
+
+	@Test
+	void ordersMoveThroughTheKitchenAndBumpTheirVersion() throws Exception {
+		Order order = createOrder();
+		Long version = order.getVersion();
+
+		for (String next : List.of("CONFIRMED", "PREPARING", "READY", "DELIVERED")) {
+			mockMvc.perform(patch("/api/orders/admin/{orderId}/status", order.getOrderId()).param("status", next))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.status").value(next));
+		}
+
+		Order delivered = orderRepository.findById(order.getOrderId()).orElseThrow();
+		assertThat(delivered.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+		assertThat(delivered.getVersion()).isEqualTo(version + 4);
+	}
+
+	@Test
+	void illegalAndStaleTransitionsAreConflicts() throws Exception {
+		Order order = createOrder();
+
+		mockMvc.perform(patch("/api/orders/admin/{orderId}/status", order.getOrderId()).param("status", "DELIVERED"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(patch("/api/orders/admin/{orderId}/status", order.getOrderId())
+						.param("status", "PREPARING").param("from", "CONFIRMED"))
+				.andExpect(status().isConflict());
+		mockMvc.perform(patch("/api/orders/admin/{orderId}/status", order.getOrderId()).param("status", "SHIPPED"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(patch("/api/orders/admin/{orderId}/status", 999_999L).param("status", "CONFIRMED"))
+				.andExpect(status().isNotFound());
+
+		assertThat(orderRepository.findById(order.getOrderId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+	}
+
+	@Test
+	void concurrentUpdatesFromTheSameStatusHaveOneWinner() throws Exception {
+		Order order = createOrder();
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (String next : List.of("CONFIRMED", "CANCELLED")) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return mockMvc.perform(patch("/api/orders/admin/{orderId}/status", order.getOrderId())
+									.param("status", next).param("from", "PENDING"))
+							.andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+			assertThat(List.of(results.get(0).get(), results.get(1).get())).containsExactlyInAnyOrder(200, 409);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Order updated = orderRepository.findById(order.getOrderId()).orElseThrow();
+		assertThat(updated.getStatus()).isIn(OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+		assertThat(updated.getVersion()).isEqualTo(order.getVersion() + 1);
+	}
+
+	@Test
+	void bulkUpdatesReportAnOutcomePerOrder() throws Exception {
+		Order confirmed = createOrder();
+		Order stale = createOrder();
+		Order skipped = createOrder();
+		Order cancelled = createOrder();
+
+		mockMvc.perform(patch("/api/orders/admin/status")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[" + update(confirmed, "PENDING", "CONFIRMED") + "," + update(stale, "CONFIRMED", "PREPARING") + ","
+								+ update(skipped, "PENDING", "DELIVERED") + ",{\"orderId\":999999,\"fromStatus\":\"PENDING\",\"toStatus\":\"CONFIRMED\"},"
+								+ update(cancelled, "PENDING", "CANCELLED") + "," + update(confirmed, "PENDING", "TELEPORTED") + "]"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+				.andExpect(jsonPath("$[0].status").value("CONFIRMED"))
+				.andExpect(jsonPath("$[1].outcome").value("CONFLICT"))
+				.andExpect(jsonPath("$[1].status").value("PENDING"))
+				.andExpect(jsonPath("$[2].outcome").value("CONFLICT"))
+				.andExpect(jsonPath("$[3].outcome").value("NOT_FOUND"))
+				.andExpect(jsonPath("$[4].outcome").value("UPDATED"))
+				.andExpect(jsonPath("$[5].outcome").value("INVALID"));
+
+		assertThat(orderRepository.findById(confirmed.getOrderId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+		assertThat(orderRepository.findById(stale.getOrderId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(orderRepository.findById(cancelled.getOrderId()).orElseThrow().getVersion()).isEqualTo(cancelled.getVersion() + 1);
+
+		// Only the applied changes are published; earlier tests' events may still be in the destination
+		Map<String, Object> events = new HashMap<>();
+		Message<byte[]> message;
+		while (!events.containsKey(cancelled.getOrderId().toString()) && (message = outputDestination.receive(5000, "order.events")) != null) {
+			long orderId = Long.parseLong((String) message.getHeaders().get("orderId"));
+			if (orderId >= confirmed.getOrderId()) {
+				events.put(message.getHeaders().get("orderId").toString(), message.getHeaders().get("eventType"));
+			}
+		}
+		assertThat(events).containsEntry(confirmed.getOrderId().toString(), "ORDER_CONFIRMED")
+				.containsEntry(cancelled.getOrderId().toString(), "ORDER_CANCELLED")
+				.doesNotContainKeys(stale.getOrderId().toString(), skipped.getOrderId().toString());
+	}
+
+	private String update(Order order, String fromStatus, String toStatus) {
+		return "{\"orderId\":" + order.getOrderId() + ",\"fromStatus\":\"" + fromStatus + "\",\"toStatus\":\"" + toStatus + "\"}";
+	}
+
+	private Order createOrder() {
+		Order order = new Order();
+		order.setUserId(31L);
+		order.setTotalAmount(new BigDecimal("12.50"));
+		return orderRepository.save(order);
+	}
+}
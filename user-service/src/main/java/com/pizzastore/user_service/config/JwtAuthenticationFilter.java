@@ -1,6 +1,7 @@
 package com.pizzastore.user_service.config;
 
 import com.pizzastore.user_service.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,14 +9,18 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -27,6 +32,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Value("${jwt.stateless-auth:false}")
+    private boolean statelessAuth;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
@@ -34,12 +45,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
-                String username = jwtUtil.getUsernameFromJwtToken(jwt);
+            // Signature and expiry are verified once; the claims are reused below
+            Claims claims = jwt != null ? jwtUtil.parseValidToken(jwt) : null;
+
+            if (claims != null && claims.getSubject() != null) {
+                String username = claims.getSubject();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = statelessAuth
+                        ? userDetailsFromClaims(username, claims)
+                        : userDetailsService.loadUserByUsername(username);
 
-                if (jwtUtil.validateJwtToken(jwt, userDetails)) {
+                if (userDetails != null && username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(userDetails, null,
                                     userDetails.getAuthorities());
@@ -55,6 +71,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Build the principal from the role claim; only the token version is checked against the cache
+    private UserDetails userDetailsFromClaims(String username, Claims claims) {
+        String role = claims.get("role", String.class);
+        if (role == null || !tokenVersionCache.isCurrent(username, claims.get(TokenVersionCache.TOKEN_VERSION_CLAIM, Number.class))) {
+            logger.debug("Rejecting revoked or incomplete token for user: {}", username);
+            return null;
+        }
+
+        return User.withUsername(username)
+                .password("")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_" + role)))
+                .build();
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -1,6 +1,7 @@
 // SecurityConfig.java
 package com.pizzastore.user_service.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -64,6 +65,11 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streamed responses complete on an async dispatch after the request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Error pages for statuses already decided on the original request (e.g. 400 for a bad cursor)
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/users/register").permitAll()
                         .requestMatchers("/api/users/login").permitAll()
@@ -86,6 +92,7 @@ public class SecurityConfig {
                         // Admin only endpoints
                         .requestMatchers("/api/users/admin/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users/all").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/users/all/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users/statistics").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users/customers").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/users/admins").hasRole("ADMIN")
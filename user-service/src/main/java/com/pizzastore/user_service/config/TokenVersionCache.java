@@ -0,0 +1,67 @@
+package com.pizzastore.user_service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.pizzastore.user_service.entity.User;
+import com.pizzastore.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Current token version and active flag per username, used by stateless authentication to reject
+ * tokens issued before a password change or deactivation. Entries are loaded from the database on
+ * a miss and dropped after such a change commits, so eviction never lets a revoked token through.
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionCache.class);
+
+    public static final String TOKEN_VERSION_CLAIM = "tokenVersion";
+
+    // Cached for unknown users too, so a flood of tokens for a deleted user stays off the database
+    private static final TokenState INACTIVE = new TokenState(-1, false);
+
+    private final LoadingCache<String, TokenState> cache;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${jwt.version-cache.max-size:10000}") long maxSize,
+                             @Value("${jwt.version-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(username -> userRepository.findByUsername(username)
+                        .map(user -> new TokenState(versionOf(user), Boolean.TRUE.equals(user.getActive())))
+                        .orElse(INACTIVE));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokenVersions");
+    }
+
+    // A token is current if the user is still active and the token carries the latest version
+    public boolean isCurrent(String username, Number tokenVersion) {
+        TokenState state = cache.get(username);
+        return state.active() && tokenVersion != null && tokenVersion.intValue() == state.version();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserTokensRevoked(UserTokensRevokedEvent event) {
+        cache.invalidate(event.username());
+        logger.debug("Dropped cached token version for user: {}", event.username());
+    }
+
+    // Users created before token versions existed start at version 0
+    public static int versionOf(User user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    private record TokenState(int version, boolean active) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.pizzastore.user_service.config;
+
+/**
+ * Published when a user's existing tokens must stop working (password change or deactivation),
+ * so the {@link TokenVersionCache} entry is dropped once the change has committed.
+ */
+public record UserTokensRevokedEvent(String username) {
+}
@@ -1,9 +1,11 @@
 // UserController.java
 package com.pizzastore.user_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pizzastore.user_service.dto.*;
 import com.pizzastore.user_service.entity.Role;
 import com.pizzastore.user_service.service.UserService;
+import com.pizzastore.user_service.util.PageCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,9 +18,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.security.Principal;
@@ -36,6 +40,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/register")
     @Operation(
             summary = "Register a new user",
@@ -427,6 +434,65 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/all/page")
+    @Operation(
+            summary = "Get users page",
+            description = "Retrieves one keyset page of all users; pass nextCursor to continue (Admin only)",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users page retrieved successfully"),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Access denied - Admin role required",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<UserDto>> getUsersPage(
+            @RequestParam(required = false)
+            @Parameter(description = "Continuation token from the previous page")
+            String cursor,
+            @RequestParam(defaultValue = "" + PageCursor.DEFAULT_PAGE_SIZE)
+            @Parameter(description = "Page size (max " + PageCursor.MAX_PAGE_SIZE + ")")
+            int size) {
+
+        logger.info("GET /api/users/all/page - Getting users page of size {}", size);
+
+        CursorPage<UserDto> page = userService.getUsersPage(cursor, size);
+
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/all/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export all users",
+            description = "Streams all users as newline-delimited JSON (Admin only)",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllUsers() {
+        logger.info("GET /api/users/all/export - Exporting all users");
+
+        // Rows are written page by page as they are read, so memory use stays bounded
+        StreamingResponseBody body = outputStream -> {
+            String cursor = null;
+            do {
+                CursorPage<UserDto> page = userService.getUsersPage(cursor, PageCursor.MAX_PAGE_SIZE);
+                for (UserDto user : page.getItems()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(user));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/customers")
     @Operation(
             summary = "Get all customers",
@@ -48,4 +48,8 @@ public class User {
     private LocalDateTime updatedAt;
 
     private Boolean active = true;
+
+    // Incremented whenever previously issued tokens must stop working
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
 }
@@ -2,6 +2,7 @@ package com.pizzastore.user_service.repository;
 
 import com.pizzastore.user_service.entity.Role;
 import com.pizzastore.user_service.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -35,4 +36,7 @@ public interface UserRepository extends JpaRepository<User,Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = 'ADMIN'")
     Long countAdmins();
 
+    // Keyset pagination: next page of users after the given ID
+    List<User> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Limit limit);
+
 }
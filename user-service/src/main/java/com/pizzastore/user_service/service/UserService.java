@@ -1,6 +1,9 @@
 package com.pizzastore.user_service.service;
 
 import com.pizzastore.user_service.config.CustomUserDetailsService;
+import com.pizzastore.user_service.config.TokenVersionCache;
+import com.pizzastore.user_service.config.UserTokensRevokedEvent;
+import com.pizzastore.user_service.dto.CursorPage;
 import com.pizzastore.user_service.dto.LoginDto;
 import com.pizzastore.user_service.dto.LoginResponseDto;
 import com.pizzastore.user_service.dto.UserDto;
@@ -12,9 +15,12 @@ import com.pizzastore.user_service.exception.UserAlreadyExistsException;
 import com.pizzastore.user_service.exception.UserNotFoundException;
 import com.pizzastore.user_service.repository.UserRepository;
 import com.pizzastore.user_service.util.JwtUtil;
+import com.pizzastore.user_service.util.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -43,6 +49,9 @@ public class UserService {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // User Registration
     public UserDto registerUser(UserRegistrationDto registrationDto) {
         logger.info("Registering new user: {}", registrationDto.getUsername());
@@ -122,6 +131,7 @@ public class UserService {
             claims.put("role", user.getRole().name());
             claims.put("firstName", user.getFirstName());
             claims.put("lastName", user.getLastName());
+            claims.put(TokenVersionCache.TOKEN_VERSION_CLAIM, TokenVersionCache.versionOf(user));
 
             logger.info("Claims prepared: {}", claims);
 
@@ -191,9 +201,11 @@ public class UserService {
             throw new InvalidCredentialsException("Invalid current password");
         }
 
-        // Update password
+        // Update password and invalidate tokens issued with the old one
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenVersion(TokenVersionCache.versionOf(user) + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(username));
 
         logger.info("Password changed successfully for user: {}", username);
     }
@@ -206,7 +218,9 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + username));
 
         user.setActive(false);
+        user.setTokenVersion(TokenVersionCache.versionOf(user) + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(username));
 
         logger.info("User account deactivated: {}", username);
     }
@@ -221,6 +235,23 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    // Get one keyset page of all users (Admin only)
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getUsersPage(String cursor, int size) {
+        int pageSize = PageCursor.clampPageSize(size);
+        List<User> users = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(
+                PageCursor.decode(cursor), Limit.of(pageSize + 1));
+
+        boolean hasMore = users.size() > pageSize;
+        List<User> page = hasMore ? users.subList(0, pageSize) : users;
+        String nextCursor = hasMore ? PageCursor.encode(page.get(page.size() - 1).getUserId()) : null;
+
+        List<UserDto> items = page.stream()
+                .map(this::convertToUserDto)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+
     // Get Users by Role (Admin only)
     public List<UserDto> getUsersByRole(Role role) {
         List<User> users = userRepository.findByRole(role);
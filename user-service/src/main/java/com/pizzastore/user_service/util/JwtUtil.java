@@ -3,6 +3,7 @@ package com.pizzastore.user_service.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,9 +29,16 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     // Generate token for user
@@ -52,7 +60,7 @@ public class JwtUtil {
                     .subject(subject)
                     .issuedAt(new Date(System.currentTimeMillis()))
                     .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                    .signWith(getSigningKey())
+                    .signWith(signingKey)
                     .compact();
         } catch (Exception e) {
             logger.error("Error creating JWT token: ", e);
@@ -84,45 +92,31 @@ public class JwtUtil {
     // Get all claims from token
     private Claims getAllClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             logger.error("Error parsing JWT token: ", e);
             throw new RuntimeException("Could not parse JWT token", e);
         }
     }
 
-    // Check if token is expired
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
-    // Validate token
-    public Boolean validateJwtToken(String token, UserDetails userDetails) {
+    // Verify signature and expiry once and return the claims, or null if the token is not valid
+    public Claims parseValidToken(String token) {
         try {
-            final String username = getUsernameFromJwtToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             logger.error("JWT validation error: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    // Validate token (the parser already rejects expired tokens)
+    public Boolean validateJwtToken(String token, UserDetails userDetails) {
+        Claims claims = parseValidToken(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
+    }
+
     // Validate token without UserDetails
     public Boolean validateJwtToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            logger.error("JWT validation error: {}", e.getMessage());
-            return false;
-        }
+        return parseValidToken(token) != null;
     }
 }
@@ -0,0 +1,92 @@
+package com.pizzastore.user_service.benchmark;
+
+import com.pizzastore.user_service.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token verification cost in {@code JwtAuthenticationFilter}, excluding the user lookup.
+ * {@code previousFilterPath} reproduces the old flow: four parses, each with a freshly built key and parser.
+ * Run with {@code main} from the test classpath; not part of the regular test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "pizzeria_jwt_secret_key_2023_must_be_at_least_32_characters_long_for_security";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 86400000);
+        jwtUtil.init();
+
+        userDetails = User.withUsername("customer").password("unused").roles("CUSTOMER").build();
+        token = jwtUtil.generateJwtToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean previousFilterPath() {
+        // validateJwtToken(jwt)
+        previousParse(token);
+        // getUsernameFromJwtToken(jwt)
+        String username = previousParse(token).getSubject();
+        // validateJwtToken(jwt, userDetails): username and expiration were parsed separately
+        boolean sameUser = previousParse(token).getSubject().equals(userDetails.getUsername());
+        boolean notExpired = previousParse(token).getExpiration().after(new Date());
+        return username != null && sameUser && notExpired;
+    }
+
+    @Benchmark
+    public boolean currentFilterPath() {
+        Claims claims = jwtUtil.parseValidToken(token);
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
+    }
+
+    private static Claims previousParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.pizzastore.user_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:stateless-auth",
+		"jwt.stateless-auth=true"
+})
+@AutoConfigureMockMvc
+class StatelessAuthTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockitoSpyBean
+	private CustomUserDetailsService userDetailsService;
+
+	@Test
+	void passwordChangeAndDeactivationRevokeIssuedTokens() throws Exception {
+		register("stateless", "secret1");
+		String firstToken = login("stateless", "secret1");
+
+		// Authenticated from the token claims, without loading the user
+		clearInvocations(userDetailsService);
+		getProfile(firstToken).andExpect(status().isOk());
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+
+		mockMvc.perform(post("/api/users/change-password")
+						.header("Authorization", "Bearer " + firstToken)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(json(Map.of("oldPassword", "secret1", "newPassword", "secret2"))))
+				.andExpect(status().isOk());
+		getProfile(firstToken).andExpect(status().isUnauthorized());
+
+		String secondToken = login("stateless", "secret2");
+		getProfile(secondToken).andExpect(status().isOk());
+
+		mockMvc.perform(post("/api/users/deactivate").header("Authorization", "Bearer " + secondToken))
+				.andExpect(status().isOk());
+		getProfile(secondToken).andExpect(status().isUnauthorized());
+	}
+
+	private ResultActions getProfile(String token) throws Exception {
+		return mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + token));
+	}
+
+	private void register(String username, String password) throws Exception {
+		mockMvc.perform(post("/api/users/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(json(Map.of("username", username, "email", username + "@example.com",
+								"password", password, "firstName", "Test", "lastName", "User"))))
+				.andExpect(status().isCreated());
+	}
+
+	private String login(String username, String password) throws Exception {
+		String body = mockMvc.perform(post("/api/users/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(json(Map.of("username", username, "password", password))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body).get("token").asText();
+	}
+
+	private String json(Object value) throws Exception {
+		return objectMapper.writeValueAsString(value);
+	}
+}
@@ -0,0 +1,147 @@
+package com.pizzastore.user_service.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzastore.user_service.entity.Role;
+import com.pizzastore.user_service.entity.User;
+import com.pizzastore.user_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:user-paging",
+		"spring.sql.init.mode=never"
+})
+@AutoConfigureMockMvc
+class UserPagingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private String adminToken;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		userRepository.deleteAll();
+		createUser("pagingadmin", Role.ADMIN);
+		for (int i = 0; i < 4; i++) {
+			createUser("customer" + i, Role.CUSTOMER);
+		}
+
+		String body = mockMvc.perform(post("/api/users/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(Map.of("username", "pagingadmin", "password", "secret"))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		adminToken = objectMapper.readTree(body).get("token").asText();
+	}
+
+	@Test
+	void pagesCoverEveryUserAndTheLastHasNoCursor() throws Exception {
+		List<String> usernames = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			JsonNode page = getPage(cursor, 2);
+			page.get("items").forEach(user -> usernames.add(user.get("username").asText()));
+			cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(usernames).containsExactlyInAnyOrderElementsOf(allUsernames()).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void pageSizeIsClamped() throws Exception {
+		JsonNode smallest = getPage(null, 0);
+		assertThat(smallest.get("items")).hasSize(1);
+		assertThat(smallest.get("nextCursor").isNull()).isFalse();
+
+		JsonNode largest = getPage(null, 100_000);
+		assertThat(largest.get("items")).hasSize(5);
+		assertThat(largest.get("nextCursor").isNull()).isTrue();
+	}
+
+	@Test
+	void malformedCursorIsABadRequest() throws Exception {
+		mockMvc.perform(authorized(get("/api/users/all/page").param("cursor", "not-a-cursor!")))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(authorized(get("/api/users/all/page").param("cursor", "YWJj")))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportStreamsEveryUserAsNdjson() throws Exception {
+		MvcResult started = mockMvc.perform(authorized(get("/api/users/all/export")))
+				.andExpect(status().isOk())
+				.andReturn();
+		String ndjson = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		List<String> usernames = new ArrayList<>();
+		for (String line : Arrays.stream(ndjson.split("\n")).filter(line -> !line.isBlank()).toList()) {
+			usernames.add(objectMapper.readTree(line).get("username").asText());
+		}
+		assertThat(usernames).containsExactlyInAnyOrderElementsOf(allUsernames());
+	}
+
+	private JsonNode getPage(String cursor, int size) throws Exception {
+		MockHttpServletRequestBuilder request = get("/api/users/all/page").param("size", String.valueOf(size));
+		if (cursor != null) {
+			request.param("cursor", cursor);
+		}
+		String body = mockMvc.perform(authorized(request))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer " + adminToken);
+	}
+
+	private List<String> allUsernames() {
+		return userRepository.findAll().stream().map(User::getUsername).toList();
+	}
+
+	private void createUser(String username, Role role) {
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPassword(passwordEncoder.encode("secret"));
+		user.setFirstName("Test");
+		user.setLastName("User");
+		user.setRole(role);
+		userRepository.save(user);
+	}
+}